@@ -1,6 +1,8 @@
 package com.example.mcpserver;
 
+import com.example.mcpserver.util.EnvUtil;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.web.servlet.support.SpringBootServletInitializer;
 
@@ -10,6 +12,8 @@ import org.springframework.boot.web.servlet.support.SpringBootServletInitializer
  * 실행 모드:
  * 1. stdio 모드: jar파일을 MCP Client에 등록 or --mcp-stdio 인자로 실행 (McpStdioServer.main 사용)
  * 2. HTTP/SSE 모드: 이 클래스로 실행 (Spring Boot 웹 서버 시작)
+ *    - 기본은 서블릿(Tomcat) 스택, MCP_HTTP_TRANSPORT=reactive 또는 --mcp.http.transport=reactive이면
+ *      리액티브(WebFlux/Netty) 스택으로 같은 엔드포인트를 제공합니다.
  */
 @SpringBootApplication
 public class McpServerApplication extends SpringBootServletInitializer {
@@ -30,8 +34,22 @@ public class McpServerApplication extends SpringBootServletInitializer {
         } else {
             // HTTP/SSE 모드: Spring Boot 웹 서버 시작
             SpringApplication app = new SpringApplication(McpServerApplication.class);
-            app.setWebApplicationType(org.springframework.boot.WebApplicationType.SERVLET);
+            app.setWebApplicationType(resolveWebApplicationType(args));
             app.run(args);
         }
     }
+    
+    /**
+     * HTTP 모드 웹 스택을 결정합니다. (--mcp.http.transport 인자 > MCP_HTTP_TRANSPORT 환경 변수 > servlet)
+     * 웹 스택은 Spring 컨텍스트 생성 전에 정해야 하므로 application.properties로는 설정할 수 없습니다.
+     */
+    private static WebApplicationType resolveWebApplicationType(String[] args) {
+        String transport = EnvUtil.getString("MCP_HTTP_TRANSPORT", "servlet");
+        for (String arg : args) {
+            if (arg.startsWith("--mcp.http.transport=")) {
+                transport = arg.substring("--mcp.http.transport=".length());
+            }
+        }
+        return "reactive".equalsIgnoreCase(transport.trim()) ? WebApplicationType.REACTIVE : WebApplicationType.SERVLET;
+    }
 }
@@ -1,9 +1,20 @@
 package com.example.mcpserver.config;
 
+import com.example.mcpserver.controller.ReactiveSseSessionManager;
+import com.example.mcpserver.controller.SseSessionManager;
+import com.example.mcpserver.controller.StreamableHttpSessionRegistry;
+import com.example.mcpserver.portal.ConnectionPoolMonitor;
+import com.example.mcpserver.portal.PortalHttpClientSettings;
+import com.example.mcpserver.server.BoundedRequestExecutor;
+import com.example.mcpserver.util.LogUtil;
 import com.example.mcpserver.util.SslByPassUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -20,8 +31,97 @@ public class RestTemplateConfig {
      * SSL 인증서 검증을 우회하는 RestTemplate을 생성합니다.
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return SslByPassUtil.createRestTemplateWithSslBypass(objectMapper());
+    public RestTemplate restTemplate(PortalHttpClientSettings portalHttpClientSettings,
+                                     ConnectionPoolMonitor connectionPoolMonitor) {
+        return SslByPassUtil.createRestTemplateWithSslBypass(
+            objectMapper(), portalHttpClientSettings, connectionPoolMonitor);
+    }
+    
+    /**
+     * 포탈 REST API 비동기 호출용 HTTP 클라이언트 (SSL 인증서 검증 우회)
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpAsyncClient portalAsyncHttpClient(PortalHttpClientSettings portalHttpClientSettings,
+                                                          ConnectionPoolMonitor connectionPoolMonitor) {
+        return SslByPassUtil.createAsyncHttpClientWithSslBypass(portalHttpClientSettings, connectionPoolMonitor);
+    }
+    
+    /**
+     * 포탈 HTTP 클라이언트 연결 풀 / 타임아웃 설정 (portal.http.* 속성 또는 환경 변수)
+     */
+    @Bean
+    public PortalHttpClientSettings portalHttpClientSettings(Environment environment) {
+        PortalHttpClientSettings settings = PortalHttpClientSettings.from(environment::getProperty);
+        LogUtil.infoPrintln("포털 HTTP 클라이언트 설정: " + settings);
+        return settings;
+    }
+    
+    /**
+     * 포탈 HTTP 연결 풀 통계
+     */
+    @Bean
+    public ConnectionPoolMonitor connectionPoolMonitor() {
+        return new ConnectionPoolMonitor();
+    }
+    
+    /**
+     * SSE 모드 MCP 요청 처리기 (mcp.sse.max-in-flight / mcp.sse.max-pending 속성)
+     */
+    @Bean(destroyMethod = "close")
+    public BoundedRequestExecutor mcpRequestExecutor(Environment environment) {
+        return new BoundedRequestExecutor(
+            environment.getProperty("mcp.sse.max-in-flight", Integer.class, 64),
+            environment.getProperty("mcp.sse.max-pending", Integer.class, 1024));
+    }
+    
+    /**
+     * SSE 세션 관리 (mcp.sse.max-sessions / heartbeat-interval-ms / idle-timeout-ms /
+     * outbound-queue-size / overflow-policy 속성)
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public SseSessionManager sseSessionManager(Environment environment) {
+        return new SseSessionManager(
+            environment.getProperty("mcp.sse.max-sessions", Integer.class, 1000),
+            environment.getProperty("mcp.sse.heartbeat-interval-ms", Long.class, 15000L),
+            environment.getProperty("mcp.sse.idle-timeout-ms", Long.class, 1800000L),
+            environment.getProperty("mcp.sse.outbound-queue-size", Integer.class, 256),
+            environment.getProperty("mcp.sse.overflow-policy", "drop-notifications"));
+    }
+    
+    /**
+     * 리액티브 HTTP 모드 웹 서버
+     * Tomcat도 클래스패스에 있으면 Spring Boot가 Tomcat을 먼저 선택하므로 Netty를 직접 지정합니다.
+     * (server.port 등 server.* 속성은 그대로 적용됨)
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+    
+    /**
+     * SSE 세션 관리 - 리액티브 HTTP 모드 (sseSessionManager와 같은 mcp.sse.* 속성)
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public ReactiveSseSessionManager reactiveSseSessionManager(Environment environment) {
+        return new ReactiveSseSessionManager(
+            environment.getProperty("mcp.sse.max-sessions", Integer.class, 1000),
+            environment.getProperty("mcp.sse.heartbeat-interval-ms", Long.class, 15000L),
+            environment.getProperty("mcp.sse.idle-timeout-ms", Long.class, 1800000L),
+            environment.getProperty("mcp.sse.outbound-queue-size", Integer.class, 256),
+            environment.getProperty("mcp.sse.overflow-policy", "drop-notifications"));
+    }
+    
+    /**
+     * Streamable HTTP 세션 목록 (mcp.http.max-sessions / mcp.http.session-idle-timeout-ms 속성)
+     */
+    @Bean(destroyMethod = "close")
+    public StreamableHttpSessionRegistry streamableHttpSessionRegistry(Environment environment) {
+        return new StreamableHttpSessionRegistry(
+            environment.getProperty("mcp.http.max-sessions", Integer.class, 10000),
+            environment.getProperty("mcp.http.session-idle-timeout-ms", Long.class, 1800000L));
     }
     
     @Bean
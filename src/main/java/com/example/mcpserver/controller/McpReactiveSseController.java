@@ -0,0 +1,140 @@
+package com.example.mcpserver.controller;
+
+import com.example.mcpserver.server.McpServerWithPortalWrapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * MCP Server-Sent Events (SSE) Controller - 리액티브(WebFlux/Netty) 모드
+ *
+ * McpSseController와 같은 엔드포인트를 제공하며, MCP_HTTP_TRANSPORT=reactive로 실행할 때만 등록됩니다.
+ * SSE 스트림은 세션별 Sink를 Netty가 직접 구독하므로, 대기 중인 연결은 스레드를 점유하지 않습니다.
+ *
+ * 통신 방식:
+ * - 클라이언트 → POST /mcp/request (JSON-RPC 요청, 접수 즉시 202 응답)
+ * - 서버 → SSE 스트림으로 응답 전송
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/mcp")
+public class McpReactiveSseController {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpReactiveSseController.class);
+
+    @Autowired
+    private McpServerWithPortalWrapper mcpServer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 요청 파싱 / 처리기 접수 (서블릿 컨트롤러와 공통)
+    @Autowired
+    private McpRequestDispatcher dispatcher;
+
+    @Autowired
+    private ReactiveSseSessionManager sessionManager;
+
+    /**
+     * 도구 목록이 바뀌면 연결된 모든 클라이언트에 notifications/tools/list_changed를 전송합니다.
+     */
+    @PostConstruct
+    void registerToolsListChangedListener() {
+        mcpServer.addToolsListChangedListener(version -> {
+            try {
+                String notificationJson = objectMapper.writeValueAsString(
+                    McpServerWithPortalWrapper.toolsListChangedNotification());
+                for (ReactiveSseSessionManager.Session session : sessionManager.getSessions()) {
+                    if (!session.sendNotification(ServerSentEvent.builder(notificationJson).event("notification").build())) {
+                        logger.warn("도구 목록 변경 알림 전송 실패: {}", session.getId());
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("도구 목록 변경 알림 생성 실패", e);
+            }
+        });
+    }
+
+    /**
+     * SSE 연결을 생성합니다.
+     *
+     * 최대 세션 수(mcp.sse.max-sessions)에 도달했으면 503으로 응답합니다.
+     *
+     * @param clientId 클라이언트 ID (선택적, 없으면 UUID 발급)
+     * @return SSE 이벤트 스트림
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<String>>> connect(@RequestParam(required = false) String clientId) {
+        ReactiveSseSessionManager.Session session = sessionManager.open(clientId);
+        if (session == null) {
+            logger.warn("최대 SSE 세션 수에 도달해 연결을 거부합니다.");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .build();
+        }
+        String finalClientId = session.getId();
+        logger.info("SSE 연결 생성: {}", finalClientId);
+
+        // 초기 연결 메시지 전송
+        session.send(ServerSentEvent.builder("{\"clientId\":\"" + finalClientId + "\",\"status\":\"connected\"}")
+            .event("connected")
+            .build());
+
+        return ResponseEntity.ok(session.getEvents()
+            .doOnCancel(() -> logger.info("SSE 연결 종료: {}", finalClientId)));
+    }
+
+    /**
+     * MCP 요청을 접수하고, 처리 결과는 SSE로 전송합니다. (McpSseController.handleRequest와 동일)
+     *
+     * @param body MCP JSON-RPC 요청 (단일 객체 또는 batch 배열)
+     * @param clientId 클라이언트 ID
+     * @return 접수 결과
+     */
+    @PostMapping("/request")
+    public ResponseEntity<Map<String, String>> handleRequest(
+            @RequestBody byte[] body,
+            @RequestParam(required = false) String clientId) {
+
+        ReactiveSseSessionManager.Session session = sessionManager.get(clientId);
+        if (session == null) {
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "SSE 연결이 없습니다. 먼저 /mcp/events로 연결하세요."));
+        }
+        session.touch();
+        return dispatcher.acceptSseRequest(body, session.getId(), session.getInFlight(),
+            (event, id, data) -> session.send(ServerSentEvent.builder(data).event(event).id(id).build()));
+    }
+
+    /**
+     * 연결된 클라이언트 수 조회
+     */
+    @GetMapping("/clients/count")
+    public ResponseEntity<Map<String, Object>> getClientCount() {
+        return ResponseEntity.ok(Map.of(
+            "count", sessionManager.size(),
+            "clients", sessionManager.getSessions().stream().map(ReactiveSseSessionManager.Session::getId).toList()
+        ));
+    }
+
+    /**
+     * SSE 세션 통계 조회 (현재 / 최대 세션 수, 거부 / 유휴 정리 / 끊김 정리 횟수)
+     */
+    @GetMapping("/sessions/stats")
+    public ResponseEntity<Map<String, Object>> getSessionStats() {
+        return ResponseEntity.ok(sessionManager.getStats());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.mcpserver.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * MCP Streamable HTTP Controller - 리액티브(WebFlux/Netty) 모드
+ *
+ * McpStreamableHttpController와 같은 POST /mcp / DELETE /mcp를 제공하며,
+ * MCP_HTTP_TRANSPORT=reactive로 실행할 때만 등록됩니다.
+ *
+ * 요청 처리는 서블릿 모드와 같이 요청 처리기(BoundedRequestExecutor)에서 수행하고,
+ * 처리가 끝나면 응답 전체를 한 번에 씁니다. (Accept에 따라 application/json 본문 또는 "message" 이벤트 하나)
+ * Netty는 클라이언트가 연결을 끊으면 바로 알려 주므로, 처리 중인 요청은 세션 헤더가 없어도 취소됩니다.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class McpReactiveStreamableHttpController {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpReactiveStreamableHttpController.class);
+
+    // 요청 파싱 / 세션 발급 / 처리기 접수 (서블릿 컨트롤러와 공통)
+    @Autowired
+    private McpRequestDispatcher dispatcher;
+
+    @Autowired
+    private StreamableHttpSessionRegistry sessions;
+
+    /**
+     * MCP 요청을 처리하고 같은 연결로 응답합니다. (McpStreamableHttpController.handlePost와 동일)
+     *
+     * @param body MCP JSON-RPC 요청 (단일 객체 또는 batch 배열)
+     * @param sessionId 세션 ID (선택적)
+     * @param accept Accept 헤더
+     * @return 응답 (처리가 끝나면 완료)
+     */
+    @PostMapping("/mcp")
+    public Mono<ResponseEntity<byte[]>> handlePost(
+            @RequestBody byte[] body,
+            @RequestHeader(value = McpStreamableHttpController.SESSION_HEADER, required = false) String sessionId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        McpRequestDispatcher.StreamableReply dispatch = dispatcher.dispatchStreamable(body, sessionId, accept);
+        if (!dispatch.isAccepted()) {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.status(dispatch.getStatus()).headers(dispatch.getHeaders());
+            return Mono.just(dispatch.getError() == null
+                ? builder.<byte[]>build()
+                : builder.body(dispatcher.writeJson(dispatch.getError())));
+        }
+
+        boolean sse = dispatch.isEventStream();
+        // 구독을 취소해도 처리 결과 future는 그대로 두고, 요청 취소는 RequestCancellation으로 전달
+        // (보낼 응답이 없으면 future 결과가 null이라 Mono가 비므로 본문 없는 응답으로 대체)
+        return Mono.fromFuture(dispatch.getPayload(), true)
+            .map(payload -> reply(dispatch.getHeaders(), sse, payload))
+            .switchIfEmpty(Mono.fromSupplier(() -> reply(dispatch.getHeaders(), sse, null)))
+            .doOnCancel(dispatch::disconnected);
+    }
+
+    /**
+     * 세션을 종료하고, 세션의 처리 중 요청을 모두 취소합니다.
+     */
+    @DeleteMapping("/mcp")
+    public ResponseEntity<Void> deleteSession(@RequestHeader(McpStreamableHttpController.SESSION_HEADER) String sessionId) {
+        return sessions.delete(sessionId)
+            ? ResponseEntity.noContent().build()
+            : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Streamable HTTP 세션 통계 조회
+     */
+    @GetMapping("/mcp/http-sessions/stats")
+    public ResponseEntity<Map<String, Object>> getSessionStats() {
+        return ResponseEntity.ok(sessions.getStats());
+    }
+
+    /**
+     * 응답(또는 응답 배열)으로 응답 본문을 만듭니다. (payload가 null이면 본문 없음)
+     */
+    private ResponseEntity<byte[]> reply(HttpHeaders headers, boolean sse, Object payload) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().headers(headers);
+        if (payload == null) {
+            return builder.build();
+        }
+        byte[] json = dispatcher.writeJson(payload);
+        logger.debug("응답 전송: {}", payload);
+        if (!sse) {
+            return builder.body(json);
+        }
+        // JSON 직렬화 결과에는 줄바꿈이 없으므로 data 줄 하나로 충분
+        String event = "data:" + new String(json, StandardCharsets.UTF_8) + "\n\n";
+        return builder.body(event.getBytes(StandardCharsets.UTF_8));
+    }
+}
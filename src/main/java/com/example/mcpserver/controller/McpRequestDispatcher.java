@@ -0,0 +1,463 @@
+package com.example.mcpserver.controller;
+
+import com.example.mcpserver.protocol.McpError;
+import com.example.mcpserver.protocol.McpRequest;
+import com.example.mcpserver.protocol.McpResponse;
+import com.example.mcpserver.server.BoundedRequestExecutor;
+import com.example.mcpserver.server.InFlightRequestRegistry;
+import com.example.mcpserver.server.McpMessageParser;
+import com.example.mcpserver.server.McpServerWithPortalWrapper;
+import com.example.mcpserver.util.RequestCancellation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * MCP 요청 접수 / 처리 (서블릿, 리액티브 컨트롤러 공통)
+ *
+ * 파싱, batch / 단일 요청 구분, 취소 알림, 처리 중 목록 등록, 요청 처리기(BoundedRequestExecutor) 접수,
+ * Streamable HTTP 세션 발급까지 전송 방식과 관계없는 부분을 담당합니다.
+ * 컨트롤러는 세션 조회와 실제 전송(SseEmitter / ServerSentEvent, ResponseBodyEmitter / Mono)만 맡습니다.
+ */
+@Component
+public class McpRequestDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpRequestDispatcher.class);
+
+    private static final String INITIALIZE_METHOD = "initialize";
+
+    /**
+     * SSE 이벤트 하나를 세션 전송 대기열에 넣는 함수 (서블릿: SseEmitter, 리액티브: ServerSentEvent)
+     */
+    @FunctionalInterface
+    public interface EventSender {
+        /**
+         * @param event 이벤트 이름 (response / error)
+         * @param id 이벤트 id (요청 id, 없으면 null)
+         * @param data 이벤트 데이터 (JSON)
+         */
+        void send(String event, String id, String data);
+    }
+
+    /**
+     * Streamable HTTP POST 처리 결과
+     *
+     * 접수하지 않았으면 상태 / 헤더 / 오류 본문으로 바로 응답하고,
+     * 접수했으면 payload가 끝날 때 응답(또는 응답 배열)을 씁니다. (payload 결과가 null이면 본문 없음)
+     */
+    public static final class StreamableReply {
+        private final HttpStatus status;
+        private final HttpHeaders headers;
+        private final McpResponse error;
+        private final CompletableFuture<Object> payload;
+        private final Runnable onDisconnect;
+        private final boolean eventStream;
+
+        private StreamableReply(HttpStatus status, HttpHeaders headers, McpResponse error,
+                                CompletableFuture<Object> payload, Runnable onDisconnect, boolean eventStream) {
+            this.status = status;
+            this.headers = headers;
+            this.error = error;
+            this.payload = payload;
+            this.onDisconnect = onDisconnect;
+            this.eventStream = eventStream;
+        }
+
+        private static StreamableReply immediate(HttpStatus status, McpResponse error) {
+            HttpHeaders headers = new HttpHeaders();
+            if (status == HttpStatus.SERVICE_UNAVAILABLE) {
+                headers.set(HttpHeaders.RETRY_AFTER, "1");
+            }
+            if (error != null) {
+                headers.setContentType(MediaType.APPLICATION_JSON);
+            }
+            return new StreamableReply(status, headers, error, null, () -> { }, false);
+        }
+
+        /**
+         * 요청 처리기에 접수했는지 여부 (false이면 getStatus / getError로 바로 응답)
+         */
+        public boolean isAccepted() {
+            return payload != null;
+        }
+
+        public HttpStatus getStatus() {
+            return status;
+        }
+
+        /**
+         * 응답 헤더 (Content-Type, 새 세션의 Mcp-Session-Id, 503이면 Retry-After)
+         */
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        /**
+         * 접수하지 않은 경우의 오류 응답 (본문이 없으면 null)
+         */
+        public McpResponse getError() {
+            return error;
+        }
+
+        /**
+         * 처리가 끝나면 응답(또는 응답 배열, 보낼 응답이 없으면 null)으로 완료되는 Future, 예외로 완료되지 않음
+         */
+        public CompletableFuture<Object> getPayload() {
+            return payload;
+        }
+
+        /**
+         * text/event-stream으로 응답할지 여부
+         */
+        public boolean isEventStream() {
+            return eventStream;
+        }
+
+        /**
+         * 클라이언트가 응답을 받기 전에 연결을 끊었을 때 호출합니다. (이 POST의 요청만 취소)
+         */
+        public void disconnected() {
+            onDisconnect.run();
+        }
+    }
+
+    @Autowired
+    private McpServerWithPortalWrapper mcpServer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private McpMessageParser messageParser;
+
+    @Autowired
+    private BoundedRequestExecutor requestExecutor;
+
+    @Autowired
+    private StreamableHttpSessionRegistry sessions;
+
+    /**
+     * SSE 모드 POST /mcp/request 요청을 접수합니다. 처리 결과는 sender로 전송합니다.
+     *
+     * 본문이 JSON 배열이면 batch 요청으로 처리하며, 항목마다 처리 자리 하나를 차지하고
+     * 모두 끝나면 응답 배열 하나를 "response" 이벤트로 전송합니다.
+     *
+     * @param body MCP JSON-RPC 요청 (단일 객체 또는 batch 배열)
+     * @param clientId 세션 ID
+     * @param inFlight 세션의 처리 중 요청 목록
+     * @param sender 세션 이벤트 전송 함수
+     * @return 202 Accepted, 파싱 실패 시 400, 요청 처리기가 가득 차면 503
+     */
+    public ResponseEntity<Map<String, String>> acceptSseRequest(byte[] body, String clientId,
+                                                                InFlightRequestRegistry inFlight, EventSender sender) {
+        McpMessageParser.Message message;
+        try {
+            message = messageParser.parse(body, 0, body.length);
+        } catch (IOException e) {
+            logger.warn("요청 파싱 실패: {}", e.getMessage());
+            sendError(sender, null, McpError.ErrorCode.PARSE_ERROR, "Parse error: " + e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(Map.of("error", "Parse error: " + e.getMessage()));
+        }
+
+        boolean accepted;
+        if (message.isBatch()) {
+            // 항목마다 처리 자리 하나 (모두 넣을 자리가 없으면 거부)
+            CompletableFuture<List<McpResponse>> responses =
+                mcpServer.submitBatch(message.getBatch(), inFlight, requestExecutor);
+            accepted = responses != null;
+            if (accepted) {
+                sendBatchResponses(sender, responses);
+            }
+        } else {
+            McpRequest request = message.getRequest();
+            if (inFlight.handleCancelledNotification(request)) {
+                // 취소 알림: 같은 클라이언트의 처리 중(대기 포함) 요청을 취소 (응답 없음)
+                return ResponseEntity.accepted().body(Map.of("status", "accepted", "clientId", clientId));
+            }
+            // 대기 중에도 취소할 수 있도록 접수 시점에 등록
+            RequestCancellation cancellation = inFlight.register(request);
+            accepted = requestExecutor.submit(BoundedRequestExecutor.Task.of(
+                () -> process(sender, inFlight, request, cancellation),
+                e -> {
+                    inFlight.complete(cancellation);
+                    onProcessingError(sender, idOf(request), e);
+                }));
+            if (!accepted) {
+                inFlight.complete(cancellation);
+            }
+        }
+
+        if (!accepted) {
+            logger.warn("요청 처리기가 가득 차 요청을 거부합니다: {}", clientId);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "처리 중인 요청이 너무 많습니다. 잠시 후 다시 시도하세요."));
+        }
+        return ResponseEntity.accepted().body(Map.of("status", "accepted", "clientId", clientId));
+    }
+
+    /**
+     * 단일 요청을 처리하고 응답을 전송합니다. (요청 처리기 스레드에서 실행)
+     *
+     * @return 응답을 전송 대기열에 넣으면 완료되는 Future
+     */
+    private CompletableFuture<Void> process(EventSender sender, InFlightRequestRegistry inFlight,
+                                            McpRequest request, RequestCancellation cancellation) {
+        String requestId = idOf(request);
+        return mcpServer.handleRequestAsync(request, cancellation)
+            .whenComplete((response, e) -> inFlight.complete(cancellation))
+            .thenAccept(response -> {
+                // SSE로 응답 전송 (취소된 요청은 응답이 null)
+                if (McpServerWithPortalWrapper.isReplyRequired(request, response)) {
+                    String responseJson = writeJsonString(response);
+                    sender.send("response", requestId, responseJson);
+
+                    logger.debug("응답 전송: {}", responseJson);
+                }
+            })
+            .exceptionally(error -> onProcessingError(sender, requestId, error));
+    }
+
+    /**
+     * batch 항목이 모두 끝나면 응답 배열 하나로 전송합니다. (Notification 응답 제외)
+     */
+    private void sendBatchResponses(EventSender sender, CompletableFuture<List<McpResponse>> batchResponses) {
+        batchResponses
+            .thenAccept(responses -> {
+                if (!responses.isEmpty()) {
+                    String responseJson = writeJsonString(responses);
+                    sender.send("response", null, responseJson);
+
+                    logger.debug("batch 응답 전송: {}", responseJson);
+                }
+            })
+            .exceptionally(error -> onProcessingError(sender, null, error));
+    }
+
+    private Void onProcessingError(EventSender sender, String requestId, Throwable error) {
+        Throwable e = unwrap(error);
+        logger.error("요청 처리 실패", e);
+        sendError(sender, requestId, McpError.ErrorCode.INTERNAL_ERROR, "Internal error: " + e.getMessage());
+        return null;
+    }
+
+    /**
+     * 오류 응답을 SSE "error" 이벤트로 전송합니다.
+     */
+    private void sendError(EventSender sender, String requestId, int code, String errorMessage) {
+        try {
+            McpResponse errorResponse = new McpResponse(requestId, new McpError(code, errorMessage));
+            sender.send("error", requestId, objectMapper.writeValueAsString(errorResponse));
+        } catch (IOException ioException) {
+            logger.error("오류 응답 전송 실패", ioException);
+        }
+    }
+
+    /**
+     * Streamable HTTP POST /mcp 요청을 접수합니다.
+     *
+     * - 알 수 없는 세션 ID면 404, 파싱 실패면 400으로 바로 응답합니다.
+     * - 세션 헤더 없이 보낸 initialize 요청에는 새 세션을 발급합니다. (최대 세션 수에 도달하면 503)
+     * - Notification만 있으면 처리만 맡기고 202, 요청 처리기가 가득 차면 503으로 응답합니다.
+     * - 나머지는 요청 처리기에 접수하고, 처리가 끝나면 getPayload()가 완료됩니다.
+     *
+     * @param body MCP JSON-RPC 요청 (단일 객체 또는 batch 배열)
+     * @param sessionId Mcp-Session-Id 헤더 (선택적)
+     * @param accept Accept 헤더
+     * @return 처리 결과
+     */
+    public StreamableReply dispatchStreamable(byte[] body, String sessionId, String accept) {
+        StreamableHttpSessionRegistry.Session session = null;
+        if (sessionId != null) {
+            session = sessions.get(sessionId);
+            if (session == null) {
+                return StreamableReply.immediate(HttpStatus.NOT_FOUND, errorOf(McpError.ErrorCode.INVALID_REQUEST,
+                    "세션을 찾을 수 없습니다. initialize 요청으로 새 세션을 시작하세요."));
+            }
+        }
+
+        McpMessageParser.Message message;
+        try {
+            message = messageParser.parse(body, 0, body.length);
+        } catch (IOException e) {
+            logger.warn("요청 파싱 실패: {}", e.getMessage());
+            return StreamableReply.immediate(HttpStatus.BAD_REQUEST,
+                errorOf(McpError.ErrorCode.PARSE_ERROR, "Parse error: " + e.getMessage()));
+        }
+        List<McpRequest> requests = message.isBatch() ? message.getBatch() : Collections.singletonList(message.getRequest());
+
+        // 세션 헤더 없이 보낸 initialize 요청에는 새 세션 발급
+        boolean newSession = false;
+        if (session == null && !message.isBatch() && message.getRequest() != null
+                && INITIALIZE_METHOD.equals(message.getRequest().getMethod())) {
+            session = sessions.open();
+            if (session == null) {
+                logger.warn("최대 Streamable HTTP 세션 수에 도달해 initialize 요청을 거부합니다.");
+                return StreamableReply.immediate(HttpStatus.SERVICE_UNAVAILABLE, errorOf(McpError.ErrorCode.INTERNAL_ERROR,
+                    "세션 수가 최대치에 도달했습니다. 잠시 후 다시 시도하세요."));
+            }
+            newSession = true;
+        }
+        InFlightRequestRegistry inFlight = session != null ? session.getInFlight() : new InFlightRequestRegistry();
+
+        if (isNotificationsOnly(requests)) {
+            // Notification만 있으면 처리만 하고 202 (취소 알림은 즉시 처리), 처리기가 가득 차면 503
+            boolean accepted = true;
+            if (message.isBatch()) {
+                accepted = mcpServer.submitBatch(requests, inFlight, requestExecutor) != null;
+            } else if (!inFlight.handleCancelledNotification(message.getRequest())) {
+                accepted = requestExecutor.submit(() -> mcpServer.handleRequestAsync(message.getRequest(), null));
+            }
+            if (!accepted) {
+                logger.warn("요청 처리기가 가득 차 알림을 거부합니다.");
+                return StreamableReply.immediate(HttpStatus.SERVICE_UNAVAILABLE, null);
+            }
+            return StreamableReply.immediate(HttpStatus.ACCEPTED, null);
+        }
+
+        CompletableFuture<Object> payload = new CompletableFuture<>();
+        Runnable onDisconnect;
+        boolean accepted;
+        if (message.isBatch()) {
+            // 연결이 끊기면 이 batch의 요청만 취소 (같은 세션의 다른 요청은 유지)
+            onDisconnect = () -> requests.forEach(request -> {
+                if (request != null && request.getId() != null) {
+                    inFlight.cancel(request.getId(), "HTTP 연결 종료");
+                }
+            });
+            // 항목마다 처리 자리 하나 (모두 넣을 자리가 없으면 거부)
+            CompletableFuture<List<McpResponse>> responses = mcpServer.submitBatch(requests, inFlight, requestExecutor);
+            accepted = responses != null;
+            if (accepted) {
+                responses
+                    .handle((result, error) -> error != null
+                        ? internalError(null, error)
+                        : result.isEmpty() ? null : result)
+                    .thenAccept(payload::complete);
+            }
+        } else {
+            McpRequest request = message.getRequest();
+            RequestCancellation cancellation = inFlight.register(request);
+            onDisconnect = () -> {
+                if (cancellation != null) {
+                    cancellation.cancel("HTTP 연결 종료");
+                }
+            };
+            // 시작하지 못하면(종료 중 거부, 시작 중 예외) 응답이 끝나지 않아 POST가 멈추지 않도록 오류 응답으로 완료
+            accepted = requestExecutor.submit(BoundedRequestExecutor.Task.of(
+                () -> mcpServer.handleRequestAsync(request, cancellation)
+                    .whenComplete((response, e) -> inFlight.complete(cancellation))
+                    .handle((response, error) -> error != null
+                        ? internalError(request.getId(), error)
+                        // 취소된 요청은 응답 없이 종료
+                        : McpServerWithPortalWrapper.isReplyRequired(request, response) ? response : null)
+                    .thenAccept(payload::complete),
+                e -> {
+                    inFlight.complete(cancellation);
+                    payload.complete(internalError(request.getId(), e));
+                }));
+            if (!accepted) {
+                inFlight.complete(cancellation);
+            }
+        }
+
+        if (!accepted) {
+            logger.warn("요청 처리기가 가득 차 요청을 거부합니다.");
+            if (newSession) {
+                sessions.delete(session.getId());
+            }
+            return StreamableReply.immediate(HttpStatus.SERVICE_UNAVAILABLE, null);
+        }
+
+        boolean eventStream = prefersEventStream(accept);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(eventStream ? MediaType.TEXT_EVENT_STREAM : MediaType.APPLICATION_JSON);
+        if (newSession) {
+            headers.set(McpStreamableHttpController.SESSION_HEADER, session.getId());
+        }
+        return new StreamableReply(HttpStatus.OK, headers, null, payload, onDisconnect, eventStream);
+    }
+
+    /**
+     * 응답을 JSON으로 직렬화합니다.
+     */
+    public byte[] writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private String writeJsonString(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private McpResponse internalError(String requestId, Throwable error) {
+        Throwable e = unwrap(error);
+        logger.error("요청 처리 실패", e);
+        return new McpResponse(requestId, new McpError(McpError.ErrorCode.INTERNAL_ERROR, "Internal error: " + e.getMessage()));
+    }
+
+    private static McpResponse errorOf(int code, String errorMessage) {
+        return new McpResponse(null, new McpError(code, errorMessage));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static String idOf(McpRequest request) {
+        return request != null ? request.getId() : null;
+    }
+
+    /**
+     * 응답이 필요 없는 메시지(Notification)만 있는지 확인합니다.
+     * (형식이 잘못된 항목이나 id와 method가 모두 없는 항목은 오류 응답이 필요)
+     */
+    static boolean isNotificationsOnly(List<McpRequest> requests) {
+        for (McpRequest request : requests) {
+            if (request == null || request.getId() != null || request.getMethod() == null) {
+                return false;
+            }
+        }
+        return !requests.isEmpty();
+    }
+
+    /**
+     * Accept가 text/event-stream은 허용하고 application/json은 허용하지 않으면 SSE로 응답합니다.
+     * (둘 다 허용하면 한 번에 받을 수 있는 JSON 본문을 사용)
+     */
+    static boolean prefersEventStream(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        try {
+            List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+            boolean eventStream = mediaTypes.stream().anyMatch(type -> type.equalsTypeAndSubtype(MediaType.TEXT_EVENT_STREAM));
+            boolean json = mediaTypes.stream().anyMatch(type -> type.includes(MediaType.APPLICATION_JSON));
+            return eventStream && !json;
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.example.mcpserver.controller;
 
-import com.example.mcpserver.protocol.*;
 import com.example.mcpserver.server.McpServerWithPortalWrapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -13,7 +16,6 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * MCP Server-Sent Events (SSE) Controller
@@ -21,10 +23,11 @@ import java.util.concurrent.ConcurrentHashMap;
  * SSE를 통해 클라이언트와 MCP 프로토콜로 통신합니다.
  * 
  * 통신 방식:
- * - 클라이언트 → POST /mcp/request (JSON-RPC 요청)
+ * - 클라이언트 → POST /mcp/request (JSON-RPC 요청, 접수 즉시 202 응답)
  * - 서버 → SSE 스트림으로 응답 전송
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/mcp")
 public class McpSseController {
     
@@ -36,116 +39,117 @@ public class McpSseController {
     @Autowired
     private ObjectMapper objectMapper;
     
-    // 클라이언트별 SSE Emitter 저장
-    private final Map<String, SseEmitter> emitters = new ConcurrentHashMap<>();
+    // 요청 파싱 / 처리기 접수 (리액티브 컨트롤러와 공통)
+    @Autowired
+    private McpRequestDispatcher dispatcher;
+    
+    // 클라이언트별 SSE 세션 (Emitter, 처리 중 요청 목록)
+    @Autowired
+    private SseSessionManager sessionManager;
+    
+    /**
+     * 도구 목록이 바뀌면 연결된 모든 클라이언트에 notifications/tools/list_changed를 전송합니다.
+     */
+    @PostConstruct
+    void registerToolsListChangedListener() {
+        mcpServer.addToolsListChangedListener(version -> {
+            try {
+                String notificationJson = objectMapper.writeValueAsString(
+                    McpServerWithPortalWrapper.toolsListChangedNotification());
+                for (SseSessionManager.Session session : sessionManager.getSessions()) {
+                    if (!session.sendNotification(SseEmitter.event()
+                            .name("notification")
+                            .data(notificationJson))) {
+                        logger.warn("도구 목록 변경 알림 전송 실패: {}", session.getId());
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("도구 목록 변경 알림 생성 실패", e);
+            }
+        });
+    }
     
     /**
      * SSE 연결을 생성합니다.
      * 
-     * @param clientId 클라이언트 ID (선택적)
+     * 최대 세션 수(mcp.sse.max-sessions)에 도달했으면 503으로 응답합니다.
+     * 
+     * @param clientId 클라이언트 ID (선택적, 없으면 UUID 발급)
      * @return SSE Emitter
      */
     @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter connect(@RequestParam(required = false) String clientId) {
-        final String finalClientId = (clientId == null || clientId.isEmpty()) 
-            ? "client-" + System.currentTimeMillis() 
-            : clientId;
-        
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE); // 무제한 타임아웃
-        emitters.put(finalClientId, emitter);
+    public ResponseEntity<SseEmitter> connect(@RequestParam(required = false) String clientId) {
+        SseSessionManager.Session session = sessionManager.open(clientId);
+        if (session == null) {
+            logger.warn("최대 SSE 세션 수에 도달해 연결을 거부합니다.");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .build();
+        }
+        final String finalClientId = session.getId();
+        SseEmitter emitter = session.getEmitter();
         
         // 연결 종료 시 정리
         emitter.onCompletion(() -> {
-            emitters.remove(finalClientId);
-            logger.info("SSE 연결 종료: {}", finalClientId);
+            if (sessionManager.remove(session, "SSE 연결 종료")) {
+                logger.info("SSE 연결 종료: {}", finalClientId);
+            }
         });
         
         emitter.onTimeout(() -> {
-            emitters.remove(finalClientId);
+            sessionManager.remove(session, "SSE 연결 종료");
             logger.info("SSE 연결 타임아웃: {}", finalClientId);
         });
         
         emitter.onError((ex) -> {
-            emitters.remove(finalClientId);
-            logger.error("SSE 연결 오류: {}", finalClientId, ex);
+            sessionManager.remove(session, "SSE 연결 종료");
+            logger.info("SSE 연결 오류: {} ({})", finalClientId, ex.getMessage());
         });
         
         logger.info("SSE 연결 생성: {}", finalClientId);
         
         // 초기 연결 메시지 전송
-        try {
-            emitter.send(SseEmitter.event()
-                .name("connected")
-                .data("{\"clientId\":\"" + finalClientId + "\",\"status\":\"connected\"}"));
-        } catch (IOException e) {
-            logger.error("초기 메시지 전송 실패", e);
-        }
+        session.send(SseEmitter.event()
+            .name("connected")
+            .data("{\"clientId\":\"" + finalClientId + "\",\"status\":\"connected\"}"));
         
-        return emitter;
+        return ResponseEntity.ok(emitter);
     }
     
     /**
-     * MCP 요청을 처리하고 SSE로 응답을 전송합니다.
+     * MCP 요청을 접수하고, 처리 결과는 SSE로 전송합니다.
+     * 
+     * 연결 확인과 파싱만 요청 스레드에서 수행하고, 처리는 요청 처리기(BoundedRequestExecutor)에 맡긴 뒤
+     * 바로 202 Accepted로 응답합니다. 응답은 "response" 이벤트(id = 요청 id)로, 실패는 "error" 이벤트로 전송됩니다.
+     * 처리기가 가득 차면(mcp.sse.max-in-flight + mcp.sse.max-pending) 503 Service Unavailable로 응답합니다.
+     * 
+     * 본문이 JSON 배열이면 JSON-RPC 2.0 batch 요청으로 처리하며, 항목마다 처리 자리 하나를 차지하고
+     * 모두 끝나면 응답 배열 하나를 "response" 이벤트로 전송합니다. (McpRequestDispatcher.acceptSseRequest)
      * 
-     * @param request MCP JSON-RPC 요청
+     * @param body MCP JSON-RPC 요청 (단일 객체 또는 batch 배열)
      * @param clientId 클라이언트 ID (선택적)
-     * @return 응답 상태
+     * @return 접수 결과
      */
     @PostMapping("/request")
     public ResponseEntity<Map<String, String>> handleRequest(
-            @RequestBody McpRequest request,
+            @RequestBody byte[] body,
             @RequestParam(required = false) String clientId) {
         
-        final String finalClientId = (clientId == null || clientId.isEmpty()) 
-            ? "client-" + System.currentTimeMillis() 
-            : clientId;
-        
-        SseEmitter emitter = emitters.get(finalClientId);
-        if (emitter == null) {
+        SseSessionManager.Session session = sessionManager.get(clientId);
+        if (session == null) {
             return ResponseEntity.badRequest()
                 .body(Map.of("error", "SSE 연결이 없습니다. 먼저 /mcp/events로 연결하세요."));
         }
-        
-        try {
-            // MCP 요청 처리
-            McpResponse response = mcpServer.handleRequest(request);
-            
-            // SSE로 응답 전송
-            if (response != null && request.getId() != null) {
-                String responseJson = objectMapper.writeValueAsString(response);
-                emitter.send(SseEmitter.event()
-                    .name("response")
-                    .id(request.getId())
-                    .data(responseJson));
-                
-                logger.debug("응답 전송: {}", responseJson);
-            }
-            
-            return ResponseEntity.ok(Map.of("status", "processed", "clientId", finalClientId));
-            
-        } catch (Exception e) {
-            logger.error("요청 처리 실패", e);
-            
-            try {
-                McpResponse errorResponse = new McpResponse(
-                    request.getId(),
-                    new McpError(
-                        McpError.ErrorCode.INTERNAL_ERROR,
-                        "Internal error: " + e.getMessage()
-                    )
-                );
-                String errorJson = objectMapper.writeValueAsString(errorResponse);
-                emitter.send(SseEmitter.event()
-                    .name("error")
-                    .id(request.getId())
-                    .data(errorJson));
-            } catch (IOException ioException) {
-                logger.error("오류 응답 전송 실패", ioException);
+        session.touch();
+        return dispatcher.acceptSseRequest(body, session.getId(), session.getInFlight(), (event, id, data) -> {
+            SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                .name(event)
+                .data(data);
+            if (id != null) {
+                builder.id(id);
             }
-            
-            return ResponseEntity.internalServerError()
-                .body(Map.of("error", e.getMessage()));
-        }
+            session.send(builder);
+        });
     }
     
     /**
@@ -154,8 +158,16 @@ public class McpSseController {
     @GetMapping("/clients/count")
     public ResponseEntity<Map<String, Object>> getClientCount() {
         return ResponseEntity.ok(Map.of(
-            "count", emitters.size(),
-            "clients", emitters.keySet()
+            "count", sessionManager.size(),
+            "clients", sessionManager.getSessions().stream().map(SseSessionManager.Session::getId).toList()
         ));
     }
+    
+    /**
+     * SSE 세션 통계 조회 (현재 / 최대 세션 수, 거부 / 유휴 정리 / 끊김 정리 횟수)
+     */
+    @GetMapping("/sessions/stats")
+    public ResponseEntity<Map<String, Object>> getSessionStats() {
+        return ResponseEntity.ok(sessionManager.getStats());
+    }
 }
@@ -0,0 +1,72 @@
+package com.example.mcpserver.controller;
+
+import com.example.mcpserver.portal.ConnectionPoolMonitor;
+import com.example.mcpserver.server.BoundedRequestExecutor;
+import com.example.mcpserver.server.McpServerWithPortalWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 요청 처리 / 포털 호출 통계 조회 Controller
+ * 
+ * 전송 방식(서블릿 / 리액티브)과 관계없는 통계 엔드포인트를 제공합니다.
+ * (세션 통계는 각 전송 방식의 Controller에서 제공)
+ */
+@RestController
+@RequestMapping("/mcp")
+public class McpStatsController {
+    
+    @Autowired
+    private McpServerWithPortalWrapper mcpServer;
+    
+    @Autowired
+    private BoundedRequestExecutor requestExecutor;
+    
+    @Autowired
+    private ConnectionPoolMonitor connectionPoolMonitor;
+    
+    /**
+     * 요청 처리기 현황 조회 (처리 중, 대기, 거부 수)
+     */
+    @GetMapping("/requests/stats")
+    public ResponseEntity<Map<String, Object>> getRequestStats() {
+        return ResponseEntity.ok(requestExecutor.getStats());
+    }
+    
+    /**
+     * 포털 응답 캐시 통계 조회
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(mcpServer.getResponseCacheStats());
+    }
+    
+    /**
+     * 포털 HTTP 연결 풀 통계 조회 (leased, pending, available)
+     */
+    @GetMapping("/pool/stats")
+    public ResponseEntity<Map<String, Object>> getPoolStats() {
+        return ResponseEntity.ok(connectionPoolMonitor.getStats());
+    }
+    
+    /**
+     * 포털 노드별 상태 조회 (처리 중 요청 수, 제외 여부, 가중치)
+     */
+    @GetMapping("/portal/nodes")
+    public ResponseEntity<Map<String, Object>> getPortalNodes() {
+        return ResponseEntity.ok(mcpServer.getPortalNodeStats());
+    }
+    
+    /**
+     * 포털 호출 장애 대응 통계 조회 (엔드포인트별 회로 상태, 재시도 / 헤지 횟수, 재시도 예산)
+     */
+    @GetMapping("/portal/calls")
+    public ResponseEntity<Map<String, Object>> getPortalCalls() {
+        return ResponseEntity.ok(mcpServer.getPortalCallStats());
+    }
+}
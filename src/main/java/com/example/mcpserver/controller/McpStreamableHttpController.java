@@ -0,0 +1,135 @@
+package com.example.mcpserver.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * MCP Streamable HTTP Controller
+ *
+ * 요청과 응답을 POST /mcp 하나로 주고받습니다. (별도의 SSE 연결, clientId 불필요)
+ *
+ * 통신 방식:
+ * - 클라이언트 → POST /mcp (JSON-RPC 요청 또는 batch 배열)
+ * - 서버 → 같은 연결로 응답 (Accept에 따라 application/json 본문 또는 text/event-stream 스트림)
+ * - Notification / 취소 알림만 있는 요청에는 202 Accepted (본문 없음), 요청 처리기가 가득 차면 503
+ *
+ * 세션:
+ * - 세션 헤더 없이 보낸 initialize 요청의 응답에 Mcp-Session-Id 헤더로 세션 ID를 발급합니다.
+ * - 이후 요청에 Mcp-Session-Id를 보내면 같은 세션의 요청을 notifications/cancelled로 취소할 수 있습니다.
+ *   (세션 헤더 없이도 요청은 처리하며, 서블릿 컨테이너가 연결 오류를 알리면 해당 요청을 취소합니다.)
+ * - 알 수 없는 세션 ID에는 404로 응답하며, 클라이언트는 initialize부터 다시 시작해야 합니다.
+ *   세션은 노드별 메모리에 있으므로 여러 노드로 운영하면 세션 헤더가 있는 요청은 같은 노드로 보내야 합니다.
+ * - DELETE /mcp로 세션을 종료합니다.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class McpStreamableHttpController {
+
+    private static final Logger logger = LoggerFactory.getLogger(McpStreamableHttpController.class);
+
+    public static final String SESSION_HEADER = "Mcp-Session-Id";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 요청 파싱 / 세션 발급 / 처리기 접수 (리액티브 컨트롤러와 공통)
+    @Autowired
+    private McpRequestDispatcher dispatcher;
+
+    @Autowired
+    private StreamableHttpSessionRegistry sessions;
+
+    /**
+     * MCP 요청을 처리하고 같은 연결로 응답합니다.
+     *
+     * Accept가 text/event-stream만 허용하면 SSE 스트림("message" 이벤트 하나 후 종료)으로,
+     * 그 외에는 application/json 본문으로 응답합니다. 두 경우 모두 chunked 전송이며,
+     * 처리는 요청 처리기(BoundedRequestExecutor)에서 수행하므로 기다리는 동안 요청 스레드를 점유하지 않습니다.
+     * (세션 확인, 파싱, 처리기 접수는 McpRequestDispatcher.dispatchStreamable)
+     *
+     * @param body MCP JSON-RPC 요청 (단일 객체 또는 batch 배열)
+     * @param sessionId 세션 ID (선택적)
+     * @param accept Accept 헤더
+     * @return 응답 스트림
+     */
+    @PostMapping("/mcp")
+    public ResponseEntity<ResponseBodyEmitter> handlePost(
+            @RequestBody byte[] body,
+            @RequestHeader(value = SESSION_HEADER, required = false) String sessionId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        McpRequestDispatcher.StreamableReply dispatch = dispatcher.dispatchStreamable(body, sessionId, accept);
+        if (!dispatch.isAccepted()) {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.status(dispatch.getStatus()).headers(dispatch.getHeaders());
+            if (dispatch.getError() == null) {
+                return builder.build();
+            }
+            ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+            reply(emitter, false, dispatch.getError());
+            return builder.body(emitter);
+        }
+
+        boolean sse = dispatch.isEventStream();
+        // 응답은 처리 완료·실패·시작 실패(Task.abort) 모두에서 완료되므로 타임아웃은 두지 않음
+        ResponseBodyEmitter emitter = sse ? new SseEmitter(Long.MAX_VALUE) : new ResponseBodyEmitter(Long.MAX_VALUE);
+        // 연결이 끊기면 이 POST의 요청만 취소 (같은 세션의 다른 요청은 유지)
+        emitter.onError(e -> dispatch.disconnected());
+        dispatch.getPayload().thenAccept(payload -> reply(emitter, sse, payload));
+        return ResponseEntity.ok().headers(dispatch.getHeaders()).body(emitter);
+    }
+
+    /**
+     * 세션을 종료하고, 세션의 처리 중 요청을 모두 취소합니다.
+     */
+    @DeleteMapping("/mcp")
+    public ResponseEntity<Void> deleteSession(@RequestHeader(SESSION_HEADER) String sessionId) {
+        return sessions.delete(sessionId)
+            ? ResponseEntity.noContent().build()
+            : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Streamable HTTP 세션 통계 조회
+     */
+    @GetMapping("/mcp/http-sessions/stats")
+    public ResponseEntity<Map<String, Object>> getSessionStats() {
+        return ResponseEntity.ok(sessions.getStats());
+    }
+
+    /**
+     * 응답(또는 응답 배열)을 쓰고 스트림을 닫습니다. (payload가 null이면 본문 없이 닫음)
+     */
+    private void reply(ResponseBodyEmitter emitter, boolean sse, Object payload) {
+        try {
+            if (payload != null) {
+                byte[] json = objectMapper.writeValueAsBytes(payload);
+                if (sse) {
+                    ((SseEmitter) emitter).send(SseEmitter.event().data(new String(json, StandardCharsets.UTF_8)));
+                } else {
+                    emitter.send(json, MediaType.APPLICATION_JSON);
+                }
+                logger.debug("응답 전송: {}", payload);
+            }
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // 클라이언트가 먼저 연결을 끊음
+            logger.debug("응답 전송 실패: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("응답 전송 실패", e);
+            emitter.completeWithError(e);
+        }
+    }
+}
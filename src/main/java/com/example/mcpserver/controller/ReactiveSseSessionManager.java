@@ -0,0 +1,293 @@
+package com.example.mcpserver.controller;
+
+import com.example.mcpserver.server.InFlightRequestRegistry;
+import com.example.mcpserver.util.LogUtil;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SSE 세션 관리 (리액티브 HTTP 모드)
+ *
+ * SseSessionManager와 같은 정책(세션 수 제한, heartbeat, 유휴 정리, UUID 세션 ID, 전송 대기열 초과 정책)을
+ * WebFlux용으로 구현합니다. 세션마다 크기가 제한된 Sink 하나를 두고, Netty가 클라이언트 쓰기 속도에 맞춰 꺼내 갑니다.
+ * 대기 중인 연결은 스레드를 점유하지 않습니다.
+ *
+ * - 연결이 끊기면(구독 취소) 세션을 정리합니다.
+ * - 대기열에 이벤트가 남아 있는데 heartbeat 한 주기 동안 하나도 전송되지 않으면 응답 없는 연결로 판단해 정리합니다.
+ */
+public class ReactiveSseSessionManager {
+
+    /**
+     * SSE 연결 하나
+     */
+    public static class Session {
+        private final String id;
+        private final ReactiveSseSessionManager manager;
+        private final Sinks.Many<ServerSentEvent<String>> sink;
+        private final Flux<ServerSentEvent<String>> events;
+        private final InFlightRequestRegistry inFlight = new InFlightRequestRegistry();
+        private final long createdAtMillis = System.currentTimeMillis();
+        private volatile long lastActivityNanos = System.nanoTime();
+        // 넣은 이벤트 수 / 전송한 이벤트 수 (차이 = 대기 중인 이벤트)
+        private long emitted;
+        private volatile long delivered;
+        private long deliveredAtLastSweep;
+
+        private Session(String id, ReactiveSseSessionManager manager) {
+            this.id = id;
+            this.manager = manager;
+            this.sink = Sinks.many().unicast().onBackpressureBuffer(
+                Queues.<ServerSentEvent<String>>get(manager.outboundQueueSize).get());
+            this.events = sink.asFlux()
+                .doOnNext(event -> delivered++)
+                .doFinally(signal -> manager.remove(this, "SSE 연결 종료"));
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * 클라이언트에 보낼 이벤트 스트림 (GET /mcp/events 응답 본문, 한 번만 구독)
+         */
+        public Flux<ServerSentEvent<String>> getEvents() {
+            return events;
+        }
+
+        public InFlightRequestRegistry getInFlight() {
+            return inFlight;
+        }
+
+        /**
+         * 응답 / 오류 이벤트를 전송 대기열에 넣습니다. (대기열이 가득 차면 연결을 끊음)
+         */
+        public boolean send(ServerSentEvent<String> event) {
+            return manager.emit(this, event, false);
+        }
+
+        /**
+         * 알림 이벤트를 전송 대기열에 넣습니다. (대기열이 가득 차면 정책에 따라 버리거나 연결을 끊음)
+         */
+        public boolean sendNotification(ServerSentEvent<String> event) {
+            return manager.emit(this, event, true);
+        }
+
+        /**
+         * 클라이언트 요청을 받았음을 기록합니다. (유휴 시간 초기화)
+         */
+        public void touch() {
+            lastActivityNanos = System.nanoTime();
+        }
+    }
+
+    private final int maxSessions;
+    private final long heartbeatMillis;
+    private final long idleTimeoutNanos;
+    private final int outboundQueueSize;
+    private final SseOutboundQueue.OverflowPolicy overflowPolicy;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder evictedIdle = new LongAdder();
+    private final LongAdder evictedDead = new LongAdder();
+    private final LongAdder eventsQueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder overflowDisconnects = new LongAdder();
+
+    /**
+     * @param maxSessions 최대 동시 세션 수
+     * @param heartbeatMillis heartbeat 주기 (0이면 heartbeat / 유휴 정리 안 함)
+     * @param idleTimeoutMillis 유휴 세션 정리 기준 (0이면 정리 안 함)
+     * @param outboundQueueSize 세션별 전송 대기열 크기
+     * @param overflowPolicy 전송 대기열이 가득 찼을 때 정책 (drop-notifications / disconnect)
+     */
+    public ReactiveSseSessionManager(int maxSessions, long heartbeatMillis, long idleTimeoutMillis,
+                                     int outboundQueueSize, String overflowPolicy) {
+        this.maxSessions = Math.max(1, maxSessions);
+        this.heartbeatMillis = Math.max(0, heartbeatMillis);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, idleTimeoutMillis));
+        this.outboundQueueSize = Math.max(1, outboundQueueSize);
+        this.overflowPolicy = SseOutboundQueue.OverflowPolicy.from(overflowPolicy);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mcp-sse-sessions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (this.heartbeatMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::sweep, this.heartbeatMillis, this.heartbeatMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 새 세션을 엽니다.
+     * 같은 clientId의 세션이 이미 있으면 기존 세션을 닫고 대체합니다.
+     *
+     * @param clientId 클라이언트가 지정한 ID (없으면 UUID 발급)
+     * @return 새 세션, 최대 세션 수에 도달했으면 null
+     */
+    public synchronized Session open(String clientId) {
+        String id = (clientId == null || clientId.isEmpty()) ? UUID.randomUUID().toString() : clientId;
+        Session previous = sessions.get(id);
+        if (previous == null && sessions.size() >= maxSessions) {
+            rejected.increment();
+            return null;
+        }
+        Session session = new Session(id, this);
+        sessions.put(id, session);
+        opened.increment();
+        if (previous != null) {
+            close(previous, "같은 clientId로 재연결");
+        }
+        return session;
+    }
+
+    public Session get(String clientId) {
+        return clientId == null ? null : sessions.get(clientId);
+    }
+
+    public Collection<Session> getSessions() {
+        return sessions.values();
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private boolean emit(Session session, ServerSentEvent<String> event, boolean droppable) {
+        Sinks.EmitResult result;
+        // 여러 스레드에서 넣을 수 있으므로 세션 단위로 직렬화 (Sink는 동시 호출 시 실패를 반환)
+        synchronized (session) {
+            result = session.sink.tryEmitNext(event);
+            if (result.isSuccess()) {
+                session.emitted++;
+            }
+        }
+        if (result.isSuccess()) {
+            eventsQueued.increment();
+            return true;
+        }
+        if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+            if (droppable && overflowPolicy == SseOutboundQueue.OverflowPolicy.DROP_NOTIFICATIONS) {
+                dropped.increment();
+                return false;
+            }
+            overflowDisconnects.increment();
+            evictDead(session, "전송 대기열 초과 (" + outboundQueueSize + "개)");
+        }
+        return false;
+    }
+
+    /**
+     * 연결이 끝난 세션을 제거하고 처리 중 요청을 모두 취소합니다.
+     *
+     * @return 세션이 제거되었으면 true (이미 정리된 세션이면 false)
+     */
+    public boolean remove(Session session, String reason) {
+        if (!sessions.remove(session.id, session)) {
+            return false;
+        }
+        closed.increment();
+        session.inFlight.cancelAll(reason);
+        return true;
+    }
+
+    private boolean close(Session session, String reason) {
+        boolean removed = remove(session, reason);
+        synchronized (session) {
+            session.sink.tryEmitComplete();
+        }
+        return removed;
+    }
+
+    /**
+     * 유휴 / 응답 없는 세션을 정리하고, 나머지 세션에 heartbeat를 보냅니다. (heartbeatMillis 주기)
+     */
+    private void sweep() {
+        long now = System.nanoTime();
+        for (Session session : sessions.values()) {
+            try {
+                long delivered = session.delivered;
+                boolean stalled;
+                synchronized (session) {
+                    stalled = session.emitted > delivered && delivered == session.deliveredAtLastSweep;
+                }
+                session.deliveredAtLastSweep = delivered;
+                if (idleTimeoutNanos > 0 && now - session.lastActivityNanos >= idleTimeoutNanos
+                        && session.inFlight.size() == 0) {
+                    if (close(session, "SSE 세션 유휴 시간 초과")) {
+                        evictedIdle.increment();
+                        LogUtil.infoPrintln("유휴 SSE 세션 정리: " + session.id);
+                    }
+                } else if (stalled) {
+                    // 대기 중인 이벤트가 heartbeat 주기 동안 하나도 전송되지 않음
+                    evictDead(session, "전송 지연");
+                } else {
+                    session.sendNotification(ServerSentEvent.<String>builder().comment("heartbeat").build());
+                }
+            } catch (RuntimeException e) {
+                LogUtil.errPrintln("SSE 세션 검사 실패: " + session.id + " (" + e.getMessage() + ")");
+            }
+        }
+    }
+
+    private void evictDead(Session session, String reason) {
+        if (close(session, "SSE 연결 끊김")) {
+            evictedDead.increment();
+            LogUtil.infoPrintln("끊어진 SSE 세션 정리: " + session.id + " (" + reason + ")");
+        }
+    }
+
+    /**
+     * 세션 통계 (SseSessionManager.getStats()와 같은 항목)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active", sessions.size());
+        stats.put("maxSessions", maxSessions);
+        stats.put("opened", opened.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("closed", closed.sum());
+        stats.put("evictedIdle", evictedIdle.sum());
+        stats.put("evictedDead", evictedDead.sum());
+        stats.put("heartbeatIntervalMs", heartbeatMillis);
+        stats.put("idleTimeoutMs", TimeUnit.NANOSECONDS.toMillis(idleTimeoutNanos));
+        long now = System.currentTimeMillis();
+        stats.put("oldestSessionAgeMs", sessions.values().stream()
+            .mapToLong(session -> now - session.createdAtMillis).max().orElse(0));
+
+        Map<String, Object> outbound = new LinkedHashMap<>();
+        outbound.put("queueSize", outboundQueueSize);
+        outbound.put("overflowPolicy", overflowPolicy.name().toLowerCase(Locale.ROOT).replace('_', '-'));
+        outbound.put("eventsQueued", eventsQueued.sum());
+        outbound.put("dropped", dropped.sum());
+        outbound.put("overflowDisconnects", overflowDisconnects.sum());
+        stats.put("outbound", outbound);
+        return stats;
+    }
+
+    /**
+     * 검사를 멈추고 모든 세션을 닫습니다.
+     */
+    public void close() {
+        scheduler.shutdownNow();
+        for (Session session : sessions.values()) {
+            close(session, "서버 종료");
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.mcpserver.controller;
+
+import com.example.mcpserver.util.LogUtil;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * SSE 세션 하나의 전송 대기열
+ *
+ * 응답을 만든 스레드는 이벤트를 대기열에 넣기만 하고, 실제 전송은 세션별 전송 작업(가상 스레드)이 수행합니다.
+ * 느린 클라이언트가 있어도 응답을 만드는 스레드는 막히지 않고, 대기열은 capacity개를 넘지 않습니다.
+ * 전송 작업은 쌓여 있는 이벤트를 최대 MAX_EVENTS_PER_FLUSH개까지 모아 한 번에 쓰고 flush합니다.
+ *
+ * 대기열이 가득 찼을 때:
+ * - DROP_NOTIFICATIONS: 알림 / heartbeat는 버리고, 응답을 넣을 자리가 없으면 연결을 끊습니다.
+ * - DISCONNECT: 어떤 이벤트든 넣을 자리가 없으면 연결을 끊습니다.
+ */
+class SseOutboundQueue {
+
+    enum OverflowPolicy {
+        DROP_NOTIFICATIONS, DISCONNECT;
+
+        /**
+         * 설정 값(drop-notifications / disconnect)을 정책으로 바꿉니다. 알 수 없는 값이면 DROP_NOTIFICATIONS
+         */
+        static OverflowPolicy from(String value) {
+            if (value == null || value.isBlank()) {
+                return DROP_NOTIFICATIONS;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                LogUtil.errPrintln("잘못된 설정 값: mcp.sse.overflow-policy=" + value + " (기본값 drop-notifications 사용)");
+                return DROP_NOTIFICATIONS;
+            }
+        }
+    }
+
+    private static final int MAX_EVENTS_PER_FLUSH = 64;
+
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final Executor executor;
+    private final SseSessionManager.Metrics metrics;
+    // 전송 실패 / 대기열 초과 시 호출 (세션 정리), 대기열 초과는 offer를 호출한 스레드에서 호출되므로 막히면 안 됨
+    private final Consumer<String> onFailure;
+
+    private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+    // 진행 중인 전송의 시작 시각 (전송 중이 아니면 0)
+    private volatile long sendStartedNanos;
+
+    SseOutboundQueue(SseEmitter emitter, int capacity, OverflowPolicy policy, Executor executor,
+                     SseSessionManager.Metrics metrics, Consumer<String> onFailure) {
+        this.emitter = emitter;
+        this.capacity = Math.max(1, capacity);
+        this.policy = policy;
+        this.executor = executor;
+        this.metrics = metrics;
+        this.onFailure = onFailure;
+    }
+
+    /**
+     * 이벤트를 전송 대기열에 넣습니다.
+     *
+     * @param event 전송할 이벤트
+     * @param droppable 대기열이 가득 찼을 때 버려도 되는 이벤트 (알림, heartbeat)
+     * @return 대기열에 넣었으면 true
+     */
+    boolean offer(SseEmitter.SseEventBuilder event, boolean droppable) {
+        if (closed) {
+            return false;
+        }
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            if (droppable && policy == OverflowPolicy.DROP_NOTIFICATIONS) {
+                metrics.dropped.increment();
+                return false;
+            }
+            metrics.overflowDisconnects.increment();
+            close();
+            onFailure.accept("전송 대기열 초과 (" + capacity + "개)");
+            return false;
+        }
+        queue.add(event.build());
+        scheduleDrain();
+        return true;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // 종료 중
+                draining.set(false);
+            }
+        }
+    }
+
+    /**
+     * 대기열이 빌 때까지 이벤트를 모아서 전송합니다. (세션당 동시에 하나만 실행)
+     */
+    private void drain() {
+        while (true) {
+            Set<ResponseBodyEmitter.DataWithMediaType> batch = new LinkedHashSet<>();
+            int events = 0;
+            Set<ResponseBodyEmitter.DataWithMediaType> next;
+            while (events < MAX_EVENTS_PER_FLUSH && (next = queue.poll()) != null) {
+                batch.addAll(next);
+                events++;
+            }
+            if (events > 0) {
+                size.addAndGet(-events);
+                if (closed) {
+                    continue;
+                }
+                sendStartedNanos = System.nanoTime();
+                try {
+                    emitter.send(batch);
+                    metrics.flushes.increment();
+                    metrics.eventsSent.add(events);
+                } catch (IOException | RuntimeException e) {
+                    close();
+                    onFailure.accept("전송 실패");
+                } finally {
+                    sendStartedNanos = 0;
+                }
+                continue;
+            }
+            draining.set(false);
+            // 종료 직전에 들어온 이벤트가 있으면 다시 전송
+            if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 진행 중인 전송이 시작된 지 얼마나 지났는지 (나노초), 전송 중이 아니면 0
+     */
+    long sendingForNanos(long now) {
+        long started = sendStartedNanos;
+        return started == 0 ? 0 : now - started;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * 더 이상 이벤트를 받지 않고, 남은 이벤트는 버립니다.
+     */
+    void close() {
+        closed = true;
+        queue.clear();
+    }
+}
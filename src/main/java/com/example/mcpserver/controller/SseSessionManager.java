@@ -0,0 +1,295 @@
+package com.example.mcpserver.controller;
+
+import com.example.mcpserver.server.InFlightRequestRegistry;
+import com.example.mcpserver.util.ExecutorUtil;
+import com.example.mcpserver.util.LogUtil;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SSE 세션 관리 (HTTP/SSE 모드)
+ *
+ * - 동시 세션 수를 maxSessions개로 제한하고, 초과하면 새 연결을 받지 않습니다.
+ * - heartbeatMillis마다 SSE 주석(": heartbeat")을 보내 끊어진 연결을 찾아냅니다.
+ *   전송이 실패하거나, 한 번의 전송이 heartbeat 주기보다 오래 끝나지 않으면(응답 없는 peer) 세션을 정리합니다.
+ * - 마지막 요청 이후 idleTimeoutMillis 동안 요청이 없는 세션을 정리합니다. (처리 중 요청이 있으면 제외)
+ * - clientId를 지정하지 않은 연결에는 UUID 세션 ID를 발급합니다.
+ * 세션을 정리하면 해당 세션의 처리 중 요청을 모두 취소하고, Emitter는 전송 스레드에서 닫습니다. (검사가 막히지 않도록)
+ *
+ * 모든 이벤트는 세션별 전송 대기열(SseOutboundQueue)을 거쳐 전송되므로,
+ * 느린 클라이언트가 응답을 만드는 스레드나 다른 세션의 전송을 막지 않습니다.
+ */
+public class SseSessionManager {
+
+    /**
+     * SSE 연결 하나
+     */
+    public static class Session {
+        private final String id;
+        private final SseEmitter emitter;
+        private final SseOutboundQueue outbound;
+        private final InFlightRequestRegistry inFlight = new InFlightRequestRegistry();
+        private final long createdAtMillis = System.currentTimeMillis();
+        private volatile long lastActivityNanos = System.nanoTime();
+
+        private Session(String id, SseEmitter emitter, SseSessionManager manager) {
+            this.id = id;
+            this.emitter = emitter;
+            this.outbound = new SseOutboundQueue(emitter, manager.outboundQueueSize, manager.overflowPolicy,
+                manager.senderExecutor, manager.metrics, reason -> manager.evictDead(this, reason));
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public SseEmitter getEmitter() {
+            return emitter;
+        }
+
+        public InFlightRequestRegistry getInFlight() {
+            return inFlight;
+        }
+
+        /**
+         * 응답 / 오류 이벤트를 전송 대기열에 넣습니다. (대기열이 가득 차면 연결을 끊음)
+         *
+         * @return 대기열에 넣었으면 true
+         */
+        public boolean send(SseEmitter.SseEventBuilder event) {
+            return outbound.offer(event, false);
+        }
+
+        /**
+         * 알림 이벤트를 전송 대기열에 넣습니다. (대기열이 가득 차면 정책에 따라 버리거나 연결을 끊음)
+         *
+         * @return 대기열에 넣었으면 true
+         */
+        public boolean sendNotification(SseEmitter.SseEventBuilder event) {
+            return outbound.offer(event, true);
+        }
+
+        /**
+         * 클라이언트 요청을 받았음을 기록합니다. (유휴 시간 초기화)
+         */
+        public void touch() {
+            lastActivityNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * 전송 대기열 통계 (모든 세션 합계)
+     */
+    static class Metrics {
+        final LongAdder eventsSent = new LongAdder();
+        final LongAdder flushes = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final LongAdder overflowDisconnects = new LongAdder();
+    }
+
+    private final int maxSessions;
+    private final long heartbeatMillis;
+    private final long idleTimeoutNanos;
+    private final int outboundQueueSize;
+    private final SseOutboundQueue.OverflowPolicy overflowPolicy;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    // 세션별 전송 작업용 (응답 없는 연결에 쓰기가 막혀도 다른 세션 전송을 막지 않음)
+    private final ExecutorService senderExecutor;
+
+    private final Metrics metrics = new Metrics();
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder closed = new LongAdder();
+    private final LongAdder evictedIdle = new LongAdder();
+    private final LongAdder evictedDead = new LongAdder();
+
+    /**
+     * @param maxSessions 최대 동시 세션 수
+     * @param heartbeatMillis heartbeat 주기 (0이면 heartbeat / 유휴 정리 안 함)
+     * @param idleTimeoutMillis 유휴 세션 정리 기준 (0이면 정리 안 함)
+     * @param outboundQueueSize 세션별 전송 대기열 크기
+     * @param overflowPolicy 전송 대기열이 가득 찼을 때 정책 (drop-notifications / disconnect)
+     */
+    public SseSessionManager(int maxSessions, long heartbeatMillis, long idleTimeoutMillis,
+                             int outboundQueueSize, String overflowPolicy) {
+        this.maxSessions = Math.max(1, maxSessions);
+        this.heartbeatMillis = Math.max(0, heartbeatMillis);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, idleTimeoutMillis));
+        this.outboundQueueSize = Math.max(1, outboundQueueSize);
+        this.overflowPolicy = SseOutboundQueue.OverflowPolicy.from(overflowPolicy);
+        this.senderExecutor = ExecutorUtil.newRequestExecutor("mcp-sse-sender");
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mcp-sse-sessions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (this.heartbeatMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::sweep, this.heartbeatMillis, this.heartbeatMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 새 세션을 엽니다.
+     * 같은 clientId의 세션이 이미 있으면 기존 세션을 닫고 대체합니다.
+     *
+     * @param clientId 클라이언트가 지정한 ID (없으면 UUID 발급)
+     * @return 새 세션, 최대 세션 수에 도달했으면 null
+     */
+    public synchronized Session open(String clientId) {
+        String id = (clientId == null || clientId.isEmpty()) ? UUID.randomUUID().toString() : clientId;
+        Session previous = sessions.get(id);
+        if (previous == null && sessions.size() >= maxSessions) {
+            rejected.increment();
+            return null;
+        }
+        // 정리는 Emitter 콜백(onCompletion 등)과 유휴 / heartbeat 검사에서 수행하므로 타임아웃은 두지 않음
+        Session session = new Session(id, new SseEmitter(Long.MAX_VALUE), this);
+        sessions.put(id, session);
+        opened.increment();
+        if (previous != null) {
+            close(previous, "같은 clientId로 재연결");
+        }
+        return session;
+    }
+
+    public Session get(String clientId) {
+        return clientId == null ? null : sessions.get(clientId);
+    }
+
+    public Collection<Session> getSessions() {
+        return sessions.values();
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * 연결이 끝난 세션을 제거하고 처리 중 요청을 모두 취소합니다. (Emitter 콜백에서 호출)
+     *
+     * @return 세션이 제거되었으면 true (이미 정리된 세션이면 false)
+     */
+    public boolean remove(Session session, String reason) {
+        if (!sessions.remove(session.id, session)) {
+            return false;
+        }
+        closed.increment();
+        session.outbound.close();
+        session.inFlight.cancelAll(reason);
+        return true;
+    }
+
+    /**
+     * 세션을 제거하고 Emitter를 닫습니다.
+     *
+     * Emitter.complete()는 진행 중인 send()와 같은 잠금을 기다리므로, 응답 없는 연결이면 전송이 실패할 때까지 막힙니다.
+     * 검사 스레드나 응답을 만든 스레드가 막히지 않도록 세션 제거와 요청 취소만 여기서 하고, Emitter는 전송 스레드에서 닫습니다.
+     */
+    private boolean close(Session session, String reason) {
+        boolean removed = remove(session, reason);
+        try {
+            senderExecutor.execute(() -> complete(session.emitter));
+        } catch (RejectedExecutionException e) {
+            // 종료 중 (서버가 연결을 닫음)
+        }
+        return removed;
+    }
+
+    private static void complete(SseEmitter emitter) {
+        try {
+            emitter.complete();
+        } catch (RuntimeException e) {
+            // 이미 닫힌 연결
+        }
+    }
+
+    /**
+     * 유휴 세션을 정리하고, 나머지 세션에 heartbeat를 보냅니다. (heartbeatMillis 주기)
+     */
+    private void sweep() {
+        long now = System.nanoTime();
+        long heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatMillis);
+        for (Session session : sessions.values()) {
+            try {
+                if (idleTimeoutNanos > 0 && now - session.lastActivityNanos >= idleTimeoutNanos
+                        && session.inFlight.size() == 0) {
+                    if (close(session, "SSE 세션 유휴 시간 초과")) {
+                        evictedIdle.increment();
+                        LogUtil.infoPrintln("유휴 SSE 세션 정리: " + session.id);
+                    }
+                } else if (session.outbound.sendingForNanos(now) >= heartbeatNanos) {
+                    // 전송 하나가 heartbeat 주기가 지나도록 끝나지 않음
+                    evictDead(session, "전송 지연");
+                } else {
+                    session.sendNotification(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (RejectedExecutionException e) {
+                return;
+            } catch (RuntimeException e) {
+                LogUtil.errPrintln("SSE 세션 검사 실패: " + session.id + " (" + e.getMessage() + ")");
+            }
+        }
+    }
+
+    private void evictDead(Session session, String reason) {
+        if (close(session, "SSE 연결 끊김")) {
+            evictedDead.increment();
+            LogUtil.infoPrintln("끊어진 SSE 세션 정리: " + session.id + " (" + reason + ")");
+        }
+    }
+
+    /**
+     * 세션 통계 (현재 / 최대 세션 수, 열림 / 거부 / 종료 / 정리 횟수, 전송 대기열 현황)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active", sessions.size());
+        stats.put("maxSessions", maxSessions);
+        stats.put("opened", opened.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("closed", closed.sum());
+        stats.put("evictedIdle", evictedIdle.sum());
+        stats.put("evictedDead", evictedDead.sum());
+        stats.put("heartbeatIntervalMs", heartbeatMillis);
+        stats.put("idleTimeoutMs", TimeUnit.NANOSECONDS.toMillis(idleTimeoutNanos));
+        long now = System.currentTimeMillis();
+        stats.put("oldestSessionAgeMs", sessions.values().stream()
+            .mapToLong(session -> now - session.createdAtMillis).max().orElse(0));
+
+        Map<String, Object> outbound = new LinkedHashMap<>();
+        outbound.put("queueSize", outboundQueueSize);
+        outbound.put("overflowPolicy", overflowPolicy.name().toLowerCase(Locale.ROOT).replace('_', '-'));
+        outbound.put("queued", sessions.values().stream().mapToInt(session -> session.outbound.size()).sum());
+        outbound.put("maxQueued", sessions.values().stream().mapToInt(session -> session.outbound.size()).max().orElse(0));
+        outbound.put("eventsSent", metrics.eventsSent.sum());
+        outbound.put("flushes", metrics.flushes.sum());
+        outbound.put("dropped", metrics.dropped.sum());
+        outbound.put("overflowDisconnects", metrics.overflowDisconnects.sum());
+        stats.put("outbound", outbound);
+        return stats;
+    }
+
+    /**
+     * 검사를 멈추고 모든 세션을 닫습니다.
+     */
+    public void close() {
+        scheduler.shutdownNow();
+        for (Session session : sessions.values()) {
+            close(session, "서버 종료");
+        }
+        senderExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.mcpserver.controller;
+
+import com.example.mcpserver.server.InFlightRequestRegistry;
+import com.example.mcpserver.util.LogUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streamable HTTP 세션 목록 (Mcp-Session-Id)
+ *
+ * initialize 요청에 세션 ID(UUID)를 발급하고, 세션별 처리 중 요청 목록을 보관합니다.
+ * 세션은 이 노드의 메모리에만 있으므로, 다른 노드는 이 세션 ID를 모르고 404로 응답합니다.
+ * 여러 노드로 확장할 때는 Mcp-Session-Id 헤더가 있는 요청이 세션을 발급한 노드로 가도록
+ * 로드 밸런서에서 세션 고정(헤더 기준 라우팅 등)을 설정해야 합니다. (세션 헤더가 없는 요청은 어느 노드로 가도 됨)
+ *
+ * - 동시 세션 수를 maxSessions개로 제한합니다.
+ * - idleTimeoutMillis 동안 사용되지 않은 세션은 정리합니다. (처리 중 요청이 있으면 제외)
+ */
+public class StreamableHttpSessionRegistry {
+
+    /**
+     * Streamable HTTP 세션 하나
+     */
+    public static class Session {
+        private final String id;
+        private final InFlightRequestRegistry inFlight = new InFlightRequestRegistry();
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        private Session(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public InFlightRequestRegistry getInFlight() {
+            return inFlight;
+        }
+    }
+
+    private static final long SWEEP_INTERVAL_MILLIS = 60_000;
+
+    private final int maxSessions;
+    private final long idleTimeoutNanos;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+    private final LongAdder evictedIdle = new LongAdder();
+    private final LongAdder unknown = new LongAdder();
+
+    /**
+     * @param maxSessions 최대 동시 세션 수
+     * @param idleTimeoutMillis 유휴 세션 정리 기준 (0이면 정리 안 함)
+     */
+    public StreamableHttpSessionRegistry(int maxSessions, long idleTimeoutMillis) {
+        this.maxSessions = Math.max(1, maxSessions);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, idleTimeoutMillis));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mcp-http-sessions");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (idleTimeoutNanos > 0) {
+            long interval = Math.min(SWEEP_INTERVAL_MILLIS, Math.max(1, idleTimeoutMillis));
+            scheduler.scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 새 세션을 발급합니다.
+     *
+     * @return 새 세션, 최대 세션 수에 도달했으면 null
+     */
+    public synchronized Session open() {
+        if (sessions.size() >= maxSessions) {
+            rejected.increment();
+            return null;
+        }
+        Session session = new Session(UUID.randomUUID().toString());
+        sessions.put(session.id, session);
+        opened.increment();
+        return session;
+    }
+
+    /**
+     * 세션을 찾고 사용 시각을 갱신합니다.
+     *
+     * @return 세션, 없거나 정리된 세션이면 null
+     */
+    public Session get(String sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            unknown.increment();
+            return null;
+        }
+        session.lastUsedNanos = System.nanoTime();
+        return session;
+    }
+
+    /**
+     * 세션을 종료하고 처리 중 요청을 모두 취소합니다. (DELETE 요청)
+     *
+     * @return 세션이 있었으면 true
+     */
+    public boolean delete(String sessionId) {
+        Session session = sessions.remove(sessionId);
+        if (session == null) {
+            return false;
+        }
+        deleted.increment();
+        session.inFlight.cancelAll("세션 종료");
+        return true;
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        for (Session session : sessions.values()) {
+            if (now - session.lastUsedNanos >= idleTimeoutNanos && session.inFlight.size() == 0
+                    && sessions.remove(session.id, session)) {
+                evictedIdle.increment();
+                LogUtil.debugPrintln("[DEBUG] 유휴 Streamable HTTP 세션 정리: " + session.id);
+            }
+        }
+    }
+
+    /**
+     * 세션 통계 (현재 / 최대 세션 수, 발급 / 거부 / 종료 / 유휴 정리 횟수, 알 수 없는 세션 ID 요청 수)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active", sessions.size());
+        stats.put("maxSessions", maxSessions);
+        stats.put("opened", opened.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("deleted", deleted.sum());
+        stats.put("evictedIdle", evictedIdle.sum());
+        stats.put("unknownSessionRequests", unknown.sum());
+        stats.put("idleTimeoutMs", TimeUnit.NANOSECONDS.toMillis(idleTimeoutNanos));
+        return stats;
+    }
+
+    public void close() {
+        scheduler.shutdownNow();
+        for (String sessionId : sessions.keySet()) {
+            delete(sessionId);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.mcpserver.portal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * 최대 크기가 제한된 포털 응답 본문
+ *
+ * 응답을 스트림으로 읽으면서 최대 크기(maxBytes)까지만 메모리에 보관합니다.
+ * 넘치는 부분은 버리고 truncated로 표시하므로, 처리 중인 호출 하나가 사용하는 메모리는
+ * 응답 크기와 관계없이 maxBytes를 넘지 않습니다.
+ *
+ * 넘치는 부분은 연결을 재사용할 수 있도록 읽어서 버리되, 입력 스트림(RestTemplate 경로)은
+ * MAX_DRAIN_BYTES까지만 읽습니다. 그보다 길면 읽기를 멈추고, 스트림을 닫을 때 연결이 정리됩니다.
+ */
+class BoundedResponseBody {
+
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+
+    // 최대 크기를 넘은 뒤 연결 재사용을 위해 더 읽어서 버리는 최대 바이트 수
+    private static final int MAX_DRAIN_BYTES = 256 * 1024;
+
+    private final int maxBytes;
+    private byte[] buffer;
+    private int length;
+    private boolean truncated;
+
+    /**
+     * @param maxBytes 보관할 최대 바이트 수
+     * @param expectedLength Content-Length (모르면 -1) - 초기 버퍼 크기 결정용
+     */
+    BoundedResponseBody(int maxBytes, long expectedLength) {
+        this.maxBytes = maxBytes;
+        int initial = expectedLength > 0 ? (int) Math.min(expectedLength, maxBytes) : Math.min(INITIAL_CAPACITY, maxBytes);
+        this.buffer = new byte[Math.max(initial, 0)];
+    }
+
+    /**
+     * 입력 스트림에서 최대 maxBytes까지 읽습니다.
+     * 넘치면 잘린 것으로 표시하고, 나머지는 MAX_DRAIN_BYTES까지 읽어서 버립니다.
+     */
+    static BoundedResponseBody read(InputStream in, int maxBytes, long expectedLength) throws IOException {
+        BoundedResponseBody body = new BoundedResponseBody(maxBytes, expectedLength);
+        if (in == null) {
+            return body;
+        }
+        while (true) {
+            if (body.length == body.maxBytes) {
+                // 최대 크기에 도달 - 한 바이트라도 더 있으면 잘린 응답
+                body.truncated = in.read() >= 0;
+                if (body.truncated) {
+                    drain(in);
+                }
+                return body;
+            }
+            body.ensureCapacity(body.length + 1);
+            int n = in.read(body.buffer, body.length, Math.min(body.buffer.length, body.maxBytes) - body.length);
+            if (n < 0) {
+                return body;
+            }
+            body.length += n;
+        }
+    }
+
+    /**
+     * 남은 본문을 MAX_DRAIN_BYTES까지 읽어서 버립니다. (끝까지 읽으면 연결을 재사용할 수 있음)
+     */
+    private static void drain(InputStream in) throws IOException {
+        byte[] scratch = new byte[8 * 1024];
+        int drained = 0;
+        while (drained < MAX_DRAIN_BYTES) {
+            int n = in.read(scratch, 0, Math.min(scratch.length, MAX_DRAIN_BYTES - drained));
+            if (n < 0) {
+                return;
+            }
+            drained += n;
+        }
+    }
+
+    /**
+     * 수신한 데이터를 추가합니다. 최대 크기를 넘는 부분은 버립니다. (비동기 응답 수신용)
+     */
+    void append(ByteBuffer src) {
+        int remaining = src.remaining();
+        int accepted = Math.min(remaining, maxBytes - length);
+        if (accepted > 0) {
+            ensureCapacity(length + accepted);
+            src.get(buffer, length, accepted);
+            length += accepted;
+        }
+        if (remaining > accepted) {
+            truncated = true;
+            src.position(src.limit());
+        }
+    }
+
+    /**
+     * 데이터를 추가합니다. 최대 크기를 넘는 부분은 버립니다. (압축 해제된 데이터 등)
+     */
+    void append(byte[] src, int offset, int count) {
+        int accepted = Math.min(count, maxBytes - length);
+        if (accepted > 0) {
+            ensureCapacity(length + accepted);
+            System.arraycopy(src, offset, buffer, length, accepted);
+            length += accepted;
+        }
+        if (count > accepted) {
+            truncated = true;
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > buffer.length) {
+            int capacity = (int) Math.min(Math.max((long) buffer.length * 2, required), maxBytes);
+            buffer = Arrays.copyOf(buffer, Math.max(capacity, required));
+        }
+    }
+
+    boolean isEmpty() {
+        return length == 0;
+    }
+
+    boolean isTruncated() {
+        return truncated;
+    }
+
+    int getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * 보관된 바이트 (유효 범위는 0 ~ length())
+     */
+    byte[] bytes() {
+        return buffer;
+    }
+
+    int length() {
+        return length;
+    }
+
+    /**
+     * 보관된 본문을 문자열로 변환합니다.
+     * 잘린 UTF-8 본문은 마지막의 불완전한 문자를 제외합니다.
+     */
+    String toString(Charset charset) {
+        int end = length;
+        if (truncated && "UTF-8".equals(charset.name())) {
+            end = utf8Boundary(buffer, length);
+        }
+        return new String(buffer, 0, end, charset);
+    }
+
+    /**
+     * 길이 이하에서 UTF-8 문자가 끝나는 마지막 위치
+     */
+    private static int utf8Boundary(byte[] bytes, int length) {
+        int i = length;
+        // 연속 바이트(10xxxxxx)를 건너뛰어 마지막 문자의 시작 바이트를 찾음
+        while (i > 0 && i > length - 4 && (bytes[i - 1] & 0xC0) == 0x80) {
+            i--;
+        }
+        if (i == 0) {
+            return length;
+        }
+        int lead = bytes[i - 1] & 0xFF;
+        int expected = lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+        return length - (i - 1) >= expected ? length : i - 1;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.mcpserver.portal;
+
+import org.apache.hc.client5.http.async.methods.AbstractBinResponseConsumer;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpResponse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 최대 크기가 제한된 비동기 응답 수신기
+ *
+ * SimpleResponseConsumer처럼 응답 전체를 메모리에 모으지 않고,
+ * 수신되는 데이터를 BoundedResponseBody에 최대 크기까지만 보관합니다.
+ * 최대 크기를 넘는 부분은 연결을 재사용할 수 있도록 끝까지 읽되 버립니다.
+ * gzip/deflate로 압축된 응답은 받는 대로 압축을 풀며, 최대 크기는 풀린 크기 기준입니다.
+ */
+class BoundedResponseConsumer extends AbstractBinResponseConsumer<BoundedResponseConsumer.Result> {
+
+    private final int maxBytes;
+    private volatile Result result;
+    private volatile ResponseDecompressor decompressor;
+
+    BoundedResponseConsumer(int maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    protected void start(HttpResponse response, ContentType contentType) {
+        Header contentLength = response.getFirstHeader(HttpHeaders.CONTENT_LENGTH);
+        long expectedLength = -1;
+        if (contentLength != null) {
+            try {
+                expectedLength = Long.parseLong(contentLength.getValue().trim());
+            } catch (NumberFormatException ignored) {
+                // 잘못된 Content-Length는 무시 (기본 버퍼 크기로 시작)
+            }
+        }
+        Header contentEncoding = response.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+        decompressor = ResponseDecompressor.forEncoding(contentEncoding != null ? contentEncoding.getValue() : null);
+        result = new Result(response, new BoundedResponseBody(maxBytes, expectedLength));
+    }
+
+    @Override
+    protected int capacityIncrement() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    protected void data(ByteBuffer src, boolean endOfStream) throws IOException {
+        if (decompressor == null) {
+            result.body.append(src);
+            return;
+        }
+        decompressor.decompress(src, result.body);
+        if (endOfStream) {
+            decompressor.finish(result.body);
+        }
+    }
+
+    @Override
+    protected Result buildResult() {
+        return result;
+    }
+
+    @Override
+    public void releaseResources() {
+        if (decompressor != null) {
+            decompressor.close();
+        }
+    }
+
+    /**
+     * 수신한 응답 (상태, 헤더, 제한된 본문)
+     */
+    static class Result {
+        private final HttpResponse response;
+        private final BoundedResponseBody body;
+
+        Result(HttpResponse response, BoundedResponseBody body) {
+            this.response = response;
+            this.body = body;
+        }
+
+        int getCode() {
+            return response.getCode();
+        }
+
+        String getReasonPhrase() {
+            return response.getReasonPhrase();
+        }
+
+        /**
+         * 응답 헤더 값 (없으면 null)
+         */
+        String getHeader(String name) {
+            Header header = response.getFirstHeader(name);
+            return header != null ? header.getValue() : null;
+        }
+
+        String getContentType() {
+            return getHeader(HttpHeaders.CONTENT_TYPE);
+        }
+
+        BoundedResponseBody getBody() {
+            return body;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.mcpserver.portal;
+
+import com.example.mcpserver.util.LogUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 포털 엔드포인트 하나의 회로 차단기
+ *
+ * 최근 window개 호출 중 실패(연결 실패/타임아웃/5xx) 비율이 failureRate% 이상이면 회로를 열고(open),
+ * openMillis 동안은 포털을 호출하지 않고 바로 실패시켜 문제가 있는 포털에 부하를 더하지 않습니다.
+ * 시간이 지나면 시험 호출 하나만 허용하고(half-open), 성공하면 회로를 닫고 실패하면 다시 엽니다.
+ */
+class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureRate;
+    private final int minCalls;
+    private final long openNanos;
+    // 최근 호출 결과 (true = 실패), 원형 버퍼
+    private final boolean[] outcomes;
+    private int next;
+    private int calls;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+    private long rejected;
+    private long opened;
+
+    /**
+     * @param name 엔드포인트 이름 (로그용)
+     * @param settings 회로 차단 설정 (failure-rate가 0이면 항상 호출 허용)
+     */
+    CircuitBreaker(String name, PortalHttpClientSettings settings) {
+        this.name = name;
+        this.failureRate = settings.getCircuitBreakerFailureRate();
+        this.minCalls = settings.getCircuitBreakerMinCalls();
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(settings.getCircuitBreakerOpenMillis());
+        this.outcomes = new boolean[settings.getCircuitBreakerWindow()];
+    }
+
+    /**
+     * 호출을 허용할지 확인합니다. 허용되면 결과를 onSuccess / onFailure / onIgnored 중 하나로 알려야 합니다.
+     *
+     * @return 회로가 닫혀 있거나 시험 호출이 허용되면 true
+     */
+    synchronized boolean tryAcquire() {
+        if (failureRate <= 0) {
+            return true;
+        }
+        switch (state) {
+            case OPEN:
+                if (System.nanoTime() - openedAtNanos < openNanos) {
+                    rejected++;
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            case HALF_OPEN:
+                if (trialInFlight) {
+                    rejected++;
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * 포털이 응답한 호출 (2xx ~ 4xx)
+     */
+    void onSuccess() {
+        boolean closed;
+        synchronized (this) {
+            closed = state == State.HALF_OPEN;
+            if (closed) {
+                state = State.CLOSED;
+                trialInFlight = false;
+                reset();
+            } else if (state == State.CLOSED) {
+                // 회로가 열리기 전에 시작된 호출의 결과는 집계하지 않음
+                record(false);
+            }
+        }
+        if (closed) {
+            LogUtil.infoPrintln("포털 회로 닫힘: " + name + " (시험 호출 성공)");
+        }
+    }
+
+    /**
+     * 포털 장애로 실패한 호출 (연결 실패/타임아웃/5xx)
+     */
+    void onFailure() {
+        String reason;
+        synchronized (this) {
+            if (state == State.OPEN) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                reason = "시험 호출 실패";
+            } else {
+                record(true);
+                if (calls < minCalls || failures * 100 < failureRate * calls) {
+                    return;
+                }
+                reason = "최근 " + calls + "회 중 " + failures + "회 실패";
+            }
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            trialInFlight = false;
+            opened++;
+            reset();
+        }
+        LogUtil.errPrintln("포털 회로 열림: " + name + " (" + reason + ", "
+            + TimeUnit.NANOSECONDS.toMillis(openNanos) + "ms 동안 호출 차단)");
+    }
+
+    /**
+     * 결과를 판단할 수 없는 호출 (취소 등)
+     */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    /**
+     * 회로가 열려 있으면 시험 호출까지 남은 시간 (밀리초), 아니면 0
+     */
+    synchronized long remainingOpenMillis() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(openNanos - (System.nanoTime() - openedAtNanos)));
+    }
+
+    private void record(boolean failure) {
+        if (calls == outcomes.length) {
+            // 가장 오래된 결과를 밀어냄
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void reset() {
+        next = 0;
+        calls = 0;
+        failures = 0;
+    }
+
+    synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state.name().toLowerCase(Locale.ROOT));
+        stats.put("recentCalls", calls);
+        stats.put("recentFailures", failures);
+        stats.put("rejected", rejected);
+        stats.put("opened", opened);
+        if (state == State.OPEN) {
+            stats.put("openForMs", remainingOpenMillis());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.mcpserver.portal;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 조건부 GET(ETag / Last-Modified) 응답 저장소
+ *
+ * 포털의 GET 응답에 ETag 또는 Last-Modified가 있으면 변환된 결과와 함께 보관해 두고,
+ * 다음 호출에 If-None-Match / If-Modified-Since를 보내 304 Not Modified이면 보관한 결과를 사용합니다.
+ * 매번 포털에 확인하므로 TTL 캐시와 달리 오래된 데이터를 반환하지 않으며,
+ * 바뀌지 않은 데이터는 포털의 직렬화와 본문 전송을 생략할 수 있습니다.
+ *
+ * 키는 요청 경로와 access_token의 SHA-256 해시이므로 사용자 간에 응답이 공유되지 않습니다.
+ * (포털 노드 주소는 키에 포함하지 않으므로 노드가 바뀌어도 검증 헤더를 보냅니다.)
+ * 항목 수(maxEntries)와 보관 본문 크기 합계(maxBytes)를 넘으면 가장 오래 사용되지 않은 항목부터 제거합니다.
+ */
+class ConditionalGetStore {
+
+    private final int maxEntries;
+    private final long maxBytes;
+    // accessOrder=true: 조회 순서 기준 LRU
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long retainedBytes;
+
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder modified = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries 최대 항목 수 (0이면 사용 안 함)
+     * @param maxBytes 보관할 응답 본문 크기 합계 최대값
+     */
+    ConditionalGetStore(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 조건부 요청을 시작합니다. 보관된 항목이 있으면 검증 헤더를 요청 헤더에 추가합니다.
+     *
+     * @param path 요청 경로 (쿼리 문자열 포함)
+     * @param accessToken 접근 토큰 (null 가능, 해시만 키에 포함)
+     * @param headers 요청 헤더
+     * @return 응답 처리에 사용할 조건부 요청, 저장소를 사용하지 않으면 null
+     */
+    Validation begin(String path, String accessToken, HttpHeaders headers) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        String key = path + '\n' + PortalResponseCache.tokenScope(accessToken);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            if (entry.etag != null) {
+                headers.set(HttpHeaders.IF_NONE_MATCH, entry.etag);
+            }
+            if (entry.lastModified != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, entry.lastModified);
+            }
+        }
+        return new Validation(key, entry);
+    }
+
+    private void store(String key, Entry entry) {
+        synchronized (entries) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                retainedBytes -= previous.size;
+            }
+            retainedBytes += entry.size;
+            // 항목 수 / 크기 합계가 한도를 넘으면 오래된 항목부터 제거
+            Iterator<Entry> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || retainedBytes > maxBytes) && eldest.hasNext()) {
+                Entry removed = eldest.next();
+                eldest.remove();
+                retainedBytes -= removed.size;
+                evictions.increment();
+            }
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (entries) {
+            Entry removed = entries.remove(key);
+            if (removed != null) {
+                retainedBytes -= removed.size;
+            }
+        }
+    }
+
+    /**
+     * 저장소 통계를 반환합니다.
+     */
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+            stats.put("retainedBytes", retainedBytes);
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("maxBytes", maxBytes);
+        stats.put("notModified", notModified.sum());
+        stats.put("modified", modified.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    /**
+     * 진행 중인 조건부 요청 하나
+     */
+    class Validation {
+        private final String key;
+        private final Entry entry;
+
+        private Validation(String key, Entry entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+
+        /**
+         * 보관된 결과를 그대로 사용할 수 있는 응답(304)인지 확인합니다.
+         */
+        boolean isNotModified(int status) {
+            return status == 304 && entry != null;
+        }
+
+        /**
+         * 보관된 결과 (304 응답)
+         */
+        Object cachedResult() {
+            notModified.increment();
+            return entry.result;
+        }
+
+        /**
+         * 새 응답(200)으로 항목을 갱신합니다. 검증 헤더가 없으면 항목을 제거합니다.
+         *
+         * @param etag ETag 헤더 (null 가능)
+         * @param lastModified Last-Modified 헤더 (null 가능)
+         * @param result 변환된 결과
+         * @param size 결과가 차지하는 메모리 크기 (바이트)
+         */
+        void update(String etag, String lastModified, Object result, long size) {
+            if (entry != null) {
+                modified.increment();
+            }
+            if ((etag == null && lastModified == null) || result == null || size > maxBytes) {
+                if (entry != null) {
+                    remove(key);
+                }
+                return;
+            }
+            store(key, new Entry(etag, lastModified, result, size));
+        }
+    }
+
+    private static class Entry {
+        private final String etag;
+        private final String lastModified;
+        private final Object result;
+        private final long size;
+
+        private Entry(String etag, String lastModified, Object result, long size) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.result = result;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.mcpserver.portal;
+
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 포털 HTTP 연결 풀 통계
+ *
+ * 포털 HTTP 클라이언트를 만들 때 연결 풀을 이름과 함께 등록해 두고,
+ * 현재 사용 중(leased), 연결 대기(pending), 유휴(available) 연결 수를 조회합니다.
+ * pending이 계속 0보다 크면 max-per-route / max-total 설정이 부족하다는 뜻입니다.
+ */
+public class ConnectionPoolMonitor {
+
+    private final Map<String, ConnPoolControl<?>> pools = new ConcurrentHashMap<>();
+
+    /**
+     * 연결 풀을 등록합니다.
+     *
+     * @param name 풀 이름 (예: "async", "classic")
+     * @param pool 연결 풀
+     */
+    public void register(String name, ConnPoolControl<?> pool) {
+        pools.put(name, pool);
+    }
+
+    /**
+     * 풀별 현재 통계를 반환합니다.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        pools.forEach((name, pool) -> {
+            PoolStats total = pool.getTotalStats();
+            Map<String, Object> poolStats = new LinkedHashMap<>();
+            poolStats.put("leased", total.getLeased());
+            poolStats.put("pending", total.getPending());
+            poolStats.put("available", total.getAvailable());
+            poolStats.put("max", total.getMax());
+            poolStats.put("maxPerRoute", pool.getDefaultMaxPerRoute());
+            stats.put(name, poolStats);
+        });
+        return stats;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.mcpserver.portal;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 큰 요청 본문을 gzip으로 압축하는 RestTemplate 인터셉터
+ *
+ * portal.http.request-compression이 켜져 있고 본문이 request-compression-min-bytes 이상이면
+ * 본문을 gzip으로 압축하고 Content-Encoding: gzip을 붙입니다.
+ * 포털이 gzip 요청 본문을 지원하는 경우에만 켜야 합니다.
+ */
+public class GzipRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    private final PortalHttpClientSettings settings;
+
+    public GzipRequestInterceptor(PortalHttpClientSettings settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (body.length > 0 && settings.shouldCompressRequest(body.length)
+                && !request.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            request.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return execution.execute(request, gzip(body));
+        }
+        return execution.execute(request, body);
+    }
+
+    /**
+     * 바이트 배열을 gzip으로 압축합니다.
+     */
+    static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed, 8 * 1024)) {
+            out.write(body);
+        }
+        return compressed.toByteArray();
+    }
+}
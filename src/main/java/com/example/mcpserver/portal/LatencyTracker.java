@@ -0,0 +1,61 @@
+package com.example.mcpserver.portal;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 엔드포인트별 최근 응답 시간 기록 (헤지 요청 기준 시간 계산용)
+ *
+ * 최근 SAMPLE_SIZE개의 응답 시간을 원형 버퍼에 보관하고,
+ * 백분위수는 RECOMPUTE_EVERY개가 기록될 때마다 다시 계산해 둡니다. (호출마다 정렬하지 않음)
+ */
+class LatencyTracker {
+
+    private static final int SAMPLE_SIZE = 256;
+    private static final int RECOMPUTE_EVERY = 16;
+    // 백분위수를 믿을 수 있는 최소 표본 수 (그 전에는 헤지하지 않음)
+    private static final int MIN_SAMPLES = 20;
+
+    private final int percentile;
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private volatile long percentileNanos = -1;
+
+    /**
+     * @param percentile 계산할 백분위수 (예: 95)
+     */
+    LatencyTracker(int percentile) {
+        this.percentile = percentile;
+    }
+
+    /**
+     * 응답 시간 하나를 기록합니다.
+     */
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % SAMPLE_SIZE;
+        if (count < SAMPLE_SIZE) {
+            count++;
+        }
+        if (count >= MIN_SAMPLES && (++sinceRecompute >= RECOMPUTE_EVERY || percentileNanos < 0)) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            percentileNanos = sorted[Math.min(count - 1, (int) Math.ceil(count * percentile / 100.0) - 1)];
+        }
+    }
+
+    /**
+     * 최근 응답 시간의 백분위수 (밀리초), 표본이 부족하면 -1
+     */
+    long percentileMillis() {
+        long nanos = percentileNanos;
+        return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    synchronized int getSampleCount() {
+        return count;
+    }
+}
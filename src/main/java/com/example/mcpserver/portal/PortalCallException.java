@@ -0,0 +1,29 @@
+package com.example.mcpserver.portal;
+
+/**
+ * 포털 호출 한 번의 실패
+ *
+ * 연결 실패/타임아웃/5xx처럼 포털 쪽 장애로 실패한 경우 retryable이 true이며,
+ * 회로 차단기는 이 실패만 집계하고 멱등 호출은 이 실패만 재시도합니다.
+ * (4xx, 응답 변환 실패, 회로 차단으로 인한 실패는 retryable = false)
+ */
+class PortalCallException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean retryable;
+
+    PortalCallException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    PortalCallException(String message, Throwable cause, boolean retryable) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.mcpserver.portal;
+
+import com.example.mcpserver.util.LogUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 포털 호출 장애 대응 정책 (회로 차단, 재시도, 헤지 요청)
+ *
+ * 호출 한 번(attempt)은 PortalRestClient가 노드를 골라 HTTP 요청 하나를 보내는 것이며,
+ * 이 클래스는 엔드포인트(메서드 + 엔드포인트 템플릿)별로 다음을 적용합니다.
+ * - 회로 차단: 최근 실패 비율이 높으면 포털을 호출하지 않고 바로 실패 (CircuitBreaker)
+ * - 재시도: 멱등 호출이 연결 실패/타임아웃/5xx로 실패하면 무작위 지연(full jitter) 후 다시 호출
+ * - 헤지: 멱등 호출이 엔드포인트의 최근 응답 시간 백분위수(기본 p95)를 넘기면 두 번째 요청을 보내고 먼저 온 응답 사용
+ * 재시도와 헤지 요청은 재시도 예산(RetryBudget) 안에서만 보내며, 4xx 응답은 재시도하지 않습니다.
+ */
+class PortalCallPolicy {
+
+    // 엔드포인트 상태 최대 수 (템플릿 없이 호출된 경로가 계속 늘어나는 경우 대비)
+    private static final int MAX_ENDPOINTS = 1000;
+    private static final String OTHER_ENDPOINTS = "*";
+
+    private final PortalHttpClientSettings settings;
+    private final RetryBudget retryBudget;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    // 재시도 대기 / 헤지 요청 타이머
+    private final ScheduledExecutorService scheduler;
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    PortalCallPolicy(PortalHttpClientSettings settings) {
+        this.settings = settings;
+        this.retryBudget = new RetryBudget(settings.getRetryBudgetPercent(), settings.getRetryBudgetMinPerSecond());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "portal-call-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 정책을 적용하여 호출합니다.
+     *
+     * @param endpointKey 엔드포인트 이름 (회로 차단 / 응답 시간 집계 단위)
+     * @param idempotent 멱등 호출 여부 (재시도 / 헤지 허용)
+     * @param attempt 호출 한 번을 시작하는 함수 (실패는 PortalCallException, 반환된 Future를 cancel하면 HTTP 요청 중단)
+     * @return 호출 결과 Future (cancel하면 진행 중인 호출을 모두 중단)
+     */
+    <T> CompletableFuture<T> execute(String endpointKey, boolean idempotent, Supplier<CompletableFuture<T>> attempt) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Endpoint endpoint = endpoint(endpointKey);
+        retryBudget.onRequest();
+        run(endpoint, idempotent, attempt, result, 0);
+        return result;
+    }
+
+    private <T> void run(Endpoint endpoint, boolean idempotent, Supplier<CompletableFuture<T>> attempt,
+                         CompletableFuture<T> result, int retry) {
+        if (result.isDone()) {
+            return;
+        }
+        CompletableFuture<T> outcome;
+        try {
+            outcome = idempotent && settings.isHedge()
+                ? hedged(endpoint, attempt)
+                : guarded(endpoint, attempt);
+        } catch (RuntimeException e) {
+            // 재시도는 타이머 스레드에서 실행되므로 예외를 던지지 않고 결과로 전달
+            result.completeExceptionally(e);
+            return;
+        }
+        result.whenComplete((value, e) -> {
+            if (result.isCancelled()) {
+                outcome.cancel(true);
+            }
+        });
+        outcome.whenComplete((value, e) -> {
+            if (e == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = unwrap(e);
+            if (result.isDone()) {
+                return;
+            }
+            if (idempotent && retry < settings.getRetryMaxRetries() && isRetryable(cause)) {
+                if (retryBudget.tryWithdraw()) {
+                    long delay = backoffMillis(retry);
+                    retries.increment();
+                    LogUtil.debugPrintf("[DEBUG] 포털 호출 재시도 {}/{} ({}ms 후): {} - {}",
+                        retry + 1, settings.getRetryMaxRetries(), delay, endpoint.name, cause.getMessage());
+                    scheduler.schedule(() -> run(endpoint, idempotent, attempt, result, retry + 1), delay, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                LogUtil.debugPrintf("[DEBUG] 재시도 예산 소진, 재시도하지 않음: {}", endpoint.name);
+            }
+            result.completeExceptionally(cause);
+        });
+    }
+
+    /**
+     * 회로 차단기를 거쳐 호출 한 번을 시작하고, 결과를 회로 차단기와 응답 시간에 기록합니다.
+     */
+    private <T> CompletableFuture<T> guarded(Endpoint endpoint, Supplier<CompletableFuture<T>> attempt) {
+        if (!endpoint.breaker.tryAcquire()) {
+            CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new PortalCallException(
+                "포털 API 호출 차단: " + endpoint.name + " 회로가 열려 있습니다 ("
+                    + endpoint.breaker.remainingOpenMillis() + "ms 후 다시 시도)", false));
+            return rejected;
+        }
+        long startNanos = System.nanoTime();
+        CompletableFuture<T> call;
+        try {
+            call = attempt.get();
+        } catch (RuntimeException e) {
+            endpoint.breaker.onIgnored();
+            throw e;
+        }
+        call.whenComplete((value, e) -> {
+            Throwable cause = e != null ? unwrap(e) : null;
+            if (cause == null) {
+                endpoint.breaker.onSuccess();
+                endpoint.latency.record(System.nanoTime() - startNanos);
+            } else if (cause instanceof CancellationException) {
+                endpoint.breaker.onIgnored();
+            } else if (isRetryable(cause)) {
+                endpoint.breaker.onFailure();
+            } else {
+                // 4xx / 응답 변환 실패: 포털은 응답했으므로 장애로 보지 않음
+                endpoint.breaker.onSuccess();
+            }
+        });
+        return call;
+    }
+
+    /**
+     * 호출 한 번을 시작하고, 응답 시간 백분위수가 지나도록 끝나지 않으면 두 번째 요청을 보냅니다.
+     * 먼저 성공한 응답을 사용하고 나머지 요청은 취소합니다. (둘 다 실패하면 나중 실패로 완료)
+     * 두 번째 요청은 노드를 다시 고르므로 처리 중 요청이 적은 다른 노드로 갈 가능성이 높습니다.
+     */
+    private <T> CompletableFuture<T> hedged(Endpoint endpoint, Supplier<CompletableFuture<T>> attempt) {
+        CompletableFuture<T> primary = guarded(endpoint, attempt);
+        long percentile = endpoint.latency.percentileMillis();
+        if (percentile < 0 || primary.isDone()) {
+            // 응답 시간 표본이 부족하면 헤지하지 않음
+            return primary;
+        }
+        long delay = Math.max(settings.getHedgeMinDelayMillis(), percentile);
+        CompletableFuture<T> hedgedResult = new CompletableFuture<>();
+        HedgeState<T> state = new HedgeState<>();
+        state.pending = 1;
+        ScheduledFuture<?> timer = scheduler.schedule(() -> {
+            synchronized (state) {
+                if (hedgedResult.isDone() || !retryBudget.tryWithdraw()) {
+                    return;
+                }
+                state.pending++;
+            }
+            hedges.increment();
+            LogUtil.debugPrintf("[DEBUG] 포털 헤지 요청 ({}ms 초과): {}", delay, endpoint.name);
+            CompletableFuture<T> secondary;
+            try {
+                secondary = guarded(endpoint, attempt);
+            } catch (RuntimeException e) {
+                secondary = new CompletableFuture<>();
+                secondary.completeExceptionally(e);
+            }
+            synchronized (state) {
+                state.secondary = secondary;
+            }
+            if (hedgedResult.isDone()) {
+                secondary.cancel(true);
+                return;
+            }
+            secondary.whenComplete((value, e) -> settle(hedgedResult, state, value, e, true));
+        }, delay, TimeUnit.MILLISECONDS);
+        primary.whenComplete((value, e) -> settle(hedgedResult, state, value, e, false));
+        hedgedResult.whenComplete((value, e) -> {
+            timer.cancel(false);
+            CompletableFuture<T> secondary;
+            synchronized (state) {
+                secondary = state.secondary;
+            }
+            // 진 쪽 요청 취소 (이미 끝난 요청은 영향 없음)
+            primary.cancel(true);
+            if (secondary != null) {
+                secondary.cancel(true);
+            }
+        });
+        return hedgedResult;
+    }
+
+    private <T> void settle(CompletableFuture<T> hedgedResult, HedgeState<T> state, T value, Throwable e, boolean secondary) {
+        if (e == null) {
+            if (hedgedResult.complete(value) && secondary) {
+                hedgeWins.increment();
+            }
+            return;
+        }
+        Throwable cause = unwrap(e);
+        if (cause instanceof CancellationException && hedgedResult.isDone()) {
+            return;
+        }
+        synchronized (state) {
+            if (--state.pending > 0) {
+                // 다른 요청이 아직 진행 중
+                return;
+            }
+        }
+        hedgedResult.completeExceptionally(cause);
+    }
+
+    /**
+     * 재시도 대기 시간: 0 ~ min(최대값, 기준값 × 2^retry) 사이 무작위 (full jitter)
+     */
+    private long backoffMillis(int retry) {
+        long ceiling = Math.min(settings.getRetryMaxBackoffMillis(), settings.getRetryBackoffMillis() << Math.min(retry, 20));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private Endpoint endpoint(String key) {
+        Endpoint endpoint = endpoints.get(key);
+        if (endpoint != null) {
+            return endpoint;
+        }
+        if (endpoints.size() >= MAX_ENDPOINTS) {
+            key = OTHER_ENDPOINTS;
+        }
+        return endpoints.computeIfAbsent(key, name -> new Endpoint(name, settings));
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        return e instanceof PortalCallException && ((PortalCallException) e).isRetryable();
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    /**
+     * 통계 (재시도 / 헤지 횟수, 재시도 예산, 엔드포인트별 회로 상태와 응답 시간 백분위수)
+     */
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("retries", retries.sum());
+        stats.put("hedges", hedges.sum());
+        stats.put("hedgeWins", hedgeWins.sum());
+        stats.put("retryBudget", retryBudget.getStats());
+        Map<String, Object> endpointStats = new LinkedHashMap<>();
+        endpoints.values().stream()
+            .sorted((a, b) -> a.name.compareTo(b.name))
+            .forEach(endpoint -> {
+                Map<String, Object> breakerStats = endpoint.breaker.getStats();
+                breakerStats.put("latencySamples", endpoint.latency.getSampleCount());
+                breakerStats.put("p" + settings.getHedgePercentile() + "Ms", endpoint.latency.percentileMillis());
+                endpointStats.put(endpoint.name, breakerStats);
+            });
+        stats.put("endpoints", endpointStats);
+        return stats;
+    }
+
+    /**
+     * 엔드포인트별 상태
+     */
+    private static class Endpoint {
+        private final String name;
+        private final CircuitBreaker breaker;
+        private final LatencyTracker latency;
+
+        private Endpoint(String name, PortalHttpClientSettings settings) {
+            this.name = name;
+            this.breaker = new CircuitBreaker(name, settings);
+            this.latency = new LatencyTracker(settings.getHedgePercentile());
+        }
+    }
+
+    /**
+     * 헤지 중인 호출의 진행 상태 (state 객체로 동기화)
+     */
+    private static class HedgeState<T> {
+        private int pending;
+        private CompletableFuture<T> secondary;
+    }
+}
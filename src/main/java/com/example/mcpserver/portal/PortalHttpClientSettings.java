@@ -0,0 +1,423 @@
+package com.example.mcpserver.portal;
+
+import com.example.mcpserver.util.LogUtil;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * 포털 API 주소, HTTP 클라이언트 연결 풀 / 타임아웃 설정
+ *
+ * HTTP/SSE 모드에서는 application.properties(또는 같은 이름의 환경 변수)로,
+ * stdio 모드에서는 환경 변수로 설정합니다.
+ * 환경 변수 이름은 속성 이름을 대문자로 바꾸고 '.', '-'를 '_'로 바꾼 것입니다.
+ * (예: portal.http.max-per-route → PORTAL_HTTP_MAX_PER_ROUTE)
+ *
+ * - portal.api.base-url (기본 https://localhost:8083): 포털 API 주소, 여러 노드는 쉼표로 구분 (환경 변수 PORTAL_API_BASE_URL)
+ *
+ * - portal.http.max-total (기본 100): 전체 최대 연결 수
+ * - portal.http.max-per-route (기본 50): 호스트별 최대 연결 수
+ * - portal.http.connect-timeout-ms (기본 5000): 연결 타임아웃
+ * - portal.http.connection-request-timeout-ms (기본 10000): 풀에서 연결을 얻기까지 대기 시간
+ * - portal.http.response-timeout-ms (기본 30000): 응답 대기 타임아웃
+ * - portal.http.socket-timeout-ms (기본 30000): 소켓 읽기 타임아웃
+ * - portal.http.keep-alive-ms (기본 30000): 서버가 Keep-Alive를 지정하지 않았을 때 연결 유지 시간
+ * - portal.http.idle-eviction-ms (기본 60000): 이 시간 이상 사용하지 않은 연결은 정리
+ * - portal.http.validate-after-inactivity-ms (기본 2000): 이 시간 이상 쉬었던 연결은 재사용 전 검사
+ * - portal.http.max-response-bytes (기본 5242880): 응답 본문 최대 크기, 넘는 부분은 잘라내고 표시
+ * - portal.http.accept-encoding (기본 "gzip, deflate"): 요청할 응답 압축 방식, 비우면 압축 응답을 요청하지 않음
+ * - portal.http.request-compression (기본 false): POST/PUT 본문 gzip 압축 여부 (포털이 지원해야 함)
+ * - portal.http.request-compression-min-bytes (기본 2048): 이 크기 이상인 본문만 압축
+ * - portal.http.json-passthrough (기본 true): JSON 응답을 Map으로 파싱하지 않고 원본 그대로 도구 결과로 전달
+ * - portal.http.conditional-get-max-entries (기본 1000): ETag/Last-Modified로 재사용할 GET 응답 최대 수, 0이면 사용 안 함
+ * - portal.http.conditional-get-max-bytes (기본 33554432): 재사용할 GET 응답 본문 크기 합계 최대값
+ *
+ * 포털 노드 부하 분산 (portal.api.base-url에 여러 주소를 쉼표로 지정한 경우)
+ * - portal.http.lb-strategy (기본 p2c): 노드 선택 방식 (p2c: 무작위 두 노드 중 처리 중 요청이 적은 쪽, least-outstanding: 전체 중 최소)
+ * - portal.http.eject-after-failures (기본 3): 연속 실패가 이 횟수에 도달하면 노드를 제외
+ * - portal.http.ejection-ms (기본 30000): 노드 제외 시간 (반복 제외 시 최대 10배까지 늘어남)
+ * - portal.http.slow-start-ms (기본 30000): 복귀한 노드의 가중치를 이 시간 동안 점진적으로 올림
+ * - portal.http.health-check-interval-ms (기본 10000): 능동 상태 검사 주기, 0이면 사용 안 함
+ * - portal.http.health-check-path (기본 "/"): 상태 검사 경로 (5xx가 아닌 응답이면 정상)
+ *
+ * 시작 시 예열
+ * - portal.http.warmup-connections (기본 0): 시작할 때 노드마다 미리 열어 둘 연결 수 (max-per-route 이하), 0이면 사용 안 함
+ *
+ * 장애 대응 (연결 실패/타임아웃/5xx만 실패로 집계, 4xx는 정상 응답으로 봄)
+ * - portal.http.circuit-breaker-failure-rate (기본 50): 엔드포인트별 최근 호출 중 실패 비율(%)이 이 값 이상이면 회로를 엶, 0이면 사용 안 함
+ * - portal.http.circuit-breaker-window (기본 20): 실패 비율을 계산할 최근 호출 수
+ * - portal.http.circuit-breaker-min-calls (기본 10): 실패 비율을 판단하기 위한 최소 호출 수
+ * - portal.http.circuit-breaker-open-ms (기본 30000): 회로가 열린 뒤 시험 호출을 허용하기까지 시간 (그동안 즉시 실패)
+ * - portal.http.retry-max-retries (기본 2): 멱등 호출(GET, 멱등 도구)의 최대 재시도 횟수, 0이면 사용 안 함
+ * - portal.http.retry-backoff-ms (기본 100): 재시도 대기 시간 기준값 (재시도마다 2배, 0 ~ 값 사이 무작위)
+ * - portal.http.retry-max-backoff-ms (기본 2000): 재시도 대기 시간 최대값
+ * - portal.http.retry-budget-percent (기본 20): 재시도 + 헤지 요청을 원래 요청 수의 이 비율(%)까지만 허용
+ * - portal.http.retry-budget-min-per-second (기본 3): 요청이 적을 때도 허용할 초당 재시도 수
+ * - portal.http.hedge (기본 false): 멱등 호출이 엔드포인트의 지연 시간 백분위수를 넘으면 두 번째 요청을 보냄
+ * - portal.http.hedge-percentile (기본 95): 헤지 요청을 보낼 지연 시간 백분위수
+ * - portal.http.hedge-min-delay-ms (기본 50): 헤지 요청을 보내기 전 최소 대기 시간
+ */
+public class PortalHttpClientSettings {
+
+    private static final String PREFIX = "portal.http.";
+    private static final String BASE_URL_PROPERTY = "portal.api.base-url";
+    private static final String DEFAULT_BASE_URL = "https://localhost:8083";
+
+    private final List<String> baseUrls;
+    private final int maxTotal;
+    private final int maxPerRoute;
+    private final long connectTimeoutMillis;
+    private final long connectionRequestTimeoutMillis;
+    private final long responseTimeoutMillis;
+    private final long socketTimeoutMillis;
+    private final long keepAliveMillis;
+    private final long idleEvictionMillis;
+    private final long validateAfterInactivityMillis;
+    private final int maxResponseBytes;
+    private final String acceptEncoding;
+    private final boolean requestCompression;
+    private final long requestCompressionMinBytes;
+    private final boolean jsonPassthrough;
+    private final int conditionalGetMaxEntries;
+    private final long conditionalGetMaxBytes;
+    private final String lbStrategy;
+    private final int ejectAfterFailures;
+    private final long ejectionMillis;
+    private final long slowStartMillis;
+    private final long healthCheckIntervalMillis;
+    private final String healthCheckPath;
+    private final int warmupConnections;
+    private final int circuitBreakerFailureRate;
+    private final int circuitBreakerWindow;
+    private final int circuitBreakerMinCalls;
+    private final long circuitBreakerOpenMillis;
+    private final int retryMaxRetries;
+    private final long retryBackoffMillis;
+    private final long retryMaxBackoffMillis;
+    private final int retryBudgetPercent;
+    private final int retryBudgetMinPerSecond;
+    private final boolean hedge;
+    private final int hedgePercentile;
+    private final long hedgeMinDelayMillis;
+
+    private PortalHttpClientSettings(Function<String, String> lookup) {
+        this.baseUrls = readBaseUrls(lookup);
+        this.maxTotal = Math.max(1, (int) read(lookup, "max-total", 100));
+        this.maxPerRoute = Math.max(1, (int) read(lookup, "max-per-route", 50));
+        this.connectTimeoutMillis = read(lookup, "connect-timeout-ms", 5_000);
+        this.connectionRequestTimeoutMillis = read(lookup, "connection-request-timeout-ms", 10_000);
+        this.responseTimeoutMillis = read(lookup, "response-timeout-ms", 30_000);
+        this.socketTimeoutMillis = read(lookup, "socket-timeout-ms", 30_000);
+        this.keepAliveMillis = read(lookup, "keep-alive-ms", 30_000);
+        this.idleEvictionMillis = read(lookup, "idle-eviction-ms", 60_000);
+        this.validateAfterInactivityMillis = read(lookup, "validate-after-inactivity-ms", 2_000);
+        this.maxResponseBytes = (int) Math.min(Math.max(1, read(lookup, "max-response-bytes", 5 * 1024 * 1024)), Integer.MAX_VALUE - 8);
+        this.acceptEncoding = readAcceptEncoding(lookup);
+        this.requestCompression = Boolean.parseBoolean(readString(lookup, "request-compression", "false"));
+        this.requestCompressionMinBytes = read(lookup, "request-compression-min-bytes", 2048);
+        this.jsonPassthrough = Boolean.parseBoolean(readString(lookup, "json-passthrough", "true"));
+        this.conditionalGetMaxEntries = (int) Math.min(read(lookup, "conditional-get-max-entries", 1000), Integer.MAX_VALUE);
+        this.conditionalGetMaxBytes = read(lookup, "conditional-get-max-bytes", 32 * 1024 * 1024);
+        this.lbStrategy = readString(lookup, "lb-strategy", "p2c").toLowerCase(Locale.ROOT);
+        this.ejectAfterFailures = Math.max(1, (int) read(lookup, "eject-after-failures", 3));
+        this.ejectionMillis = read(lookup, "ejection-ms", 30_000);
+        this.slowStartMillis = read(lookup, "slow-start-ms", 30_000);
+        this.healthCheckIntervalMillis = read(lookup, "health-check-interval-ms", 10_000);
+        this.healthCheckPath = readString(lookup, "health-check-path", "/");
+        this.warmupConnections = (int) Math.min(read(lookup, "warmup-connections", 0), maxPerRoute);
+        this.circuitBreakerFailureRate = (int) Math.min(read(lookup, "circuit-breaker-failure-rate", 50), 100);
+        this.circuitBreakerWindow = (int) Math.min(Math.max(1, read(lookup, "circuit-breaker-window", 20)), 1000);
+        this.circuitBreakerMinCalls = (int) Math.min(Math.max(1, read(lookup, "circuit-breaker-min-calls", 10)), circuitBreakerWindow);
+        this.circuitBreakerOpenMillis = read(lookup, "circuit-breaker-open-ms", 30_000);
+        this.retryMaxRetries = (int) Math.min(read(lookup, "retry-max-retries", 2), 10);
+        this.retryBackoffMillis = read(lookup, "retry-backoff-ms", 100);
+        this.retryMaxBackoffMillis = Math.max(retryBackoffMillis, read(lookup, "retry-max-backoff-ms", 2_000));
+        this.retryBudgetPercent = (int) Math.min(read(lookup, "retry-budget-percent", 20), 100);
+        this.retryBudgetMinPerSecond = (int) Math.min(read(lookup, "retry-budget-min-per-second", 3), 1000);
+        this.hedge = Boolean.parseBoolean(readString(lookup, "hedge", "false"));
+        this.hedgePercentile = (int) Math.min(Math.max(50, read(lookup, "hedge-percentile", 95)), 99);
+        this.hedgeMinDelayMillis = read(lookup, "hedge-min-delay-ms", 50);
+    }
+
+    /**
+     * 기본값 설정
+     */
+    public static PortalHttpClientSettings defaults() {
+        return new PortalHttpClientSettings(name -> null);
+    }
+
+    /**
+     * 환경 변수에서 설정을 읽습니다. (stdio 모드)
+     */
+    public static PortalHttpClientSettings fromEnvironment() {
+        return new PortalHttpClientSettings(name -> System.getenv(toEnvName(name)));
+    }
+
+    /**
+     * 속성 조회 함수로 설정을 읽습니다. (예: Spring Environment::getProperty)
+     *
+     * @param lookup 속성 이름(portal.api.base-url, portal.http.*)으로 값을 조회하는 함수
+     */
+    public static PortalHttpClientSettings from(Function<String, String> lookup) {
+        return new PortalHttpClientSettings(lookup);
+    }
+
+    private static long read(Function<String, String> lookup, String key, long defaultValue) {
+        String name = PREFIX + key;
+        String value = lookup.apply(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed < 0) {
+                throw new NumberFormatException("음수");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            LogUtil.errPrintln("잘못된 설정 값: " + name + "=" + value + " (기본값 " + defaultValue + " 사용)");
+            return defaultValue;
+        }
+    }
+
+    private static String readString(Function<String, String> lookup, String key, String defaultValue) {
+        String value = lookup.apply(PREFIX + key);
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    /**
+     * 포털 API 주소 목록을 읽습니다. 없으면 기본 주소 하나
+     */
+    private static List<String> readBaseUrls(Function<String, String> lookup) {
+        String value = lookup.apply(BASE_URL_PROPERTY);
+        List<String> baseUrls = PortalNodeBalancer.parseBaseUrls(value != null ? value : "");
+        return baseUrls.isEmpty() ? List.of(DEFAULT_BASE_URL) : List.copyOf(baseUrls);
+    }
+
+    /**
+     * Accept-Encoding 값을 읽습니다. 압축을 풀 수 있는 gzip/x-gzip/deflate/identity만 허용합니다.
+     */
+    private static String readAcceptEncoding(Function<String, String> lookup) {
+        String value = readString(lookup, "accept-encoding", "gzip, deflate");
+        List<String> codings = new ArrayList<>();
+        for (String token : value.split(",")) {
+            String coding = token.trim();
+            if (coding.isEmpty()) {
+                continue;
+            }
+            String name = coding.split(";")[0].trim().toLowerCase(Locale.ROOT);
+            if (name.equals("gzip") || name.equals("x-gzip") || name.equals("deflate") || name.equals("identity")) {
+                codings.add(coding);
+            } else {
+                LogUtil.errPrintln("지원하지 않는 압축 방식 무시: " + PREFIX + "accept-encoding=" + coding);
+            }
+        }
+        return String.join(", ", codings);
+    }
+
+    static String toEnvName(String propertyName) {
+        return propertyName.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_');
+    }
+
+    /**
+     * 연결 단위 설정 (연결/소켓 타임아웃, 비활성 후 검사)
+     */
+    public ConnectionConfig toConnectionConfig() {
+        return ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+            .setSocketTimeout(Timeout.ofMilliseconds(socketTimeoutMillis))
+            .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivityMillis))
+            .build();
+    }
+
+    /**
+     * 요청 단위 설정 (풀 대기/응답 타임아웃, 기본 Keep-Alive)
+     */
+    public RequestConfig toRequestConfig() {
+        return RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMillis))
+            .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMillis))
+            .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAliveMillis))
+            .build();
+    }
+
+    /**
+     * 포털 API 주소 목록 (노드가 여러 개이면 부하 분산)
+     */
+    public List<String> getBaseUrls() {
+        return baseUrls;
+    }
+
+    public TimeValue getIdleEviction() {
+        return TimeValue.ofMilliseconds(idleEvictionMillis);
+    }
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public int getMaxResponseBytes() {
+        return maxResponseBytes;
+    }
+
+    /**
+     * 요청할 응답 압축 방식 (Accept-Encoding), 압축 응답을 요청하지 않으면 빈 문자열
+     */
+    public String getAcceptEncoding() {
+        return acceptEncoding;
+    }
+
+    public boolean isRequestCompression() {
+        return requestCompression;
+    }
+
+    public boolean isJsonPassthrough() {
+        return jsonPassthrough;
+    }
+
+    public int getConditionalGetMaxEntries() {
+        return conditionalGetMaxEntries;
+    }
+
+    public long getConditionalGetMaxBytes() {
+        return conditionalGetMaxBytes;
+    }
+
+    /**
+     * 노드 선택 방식 ("p2c" 또는 "least-outstanding")
+     */
+    public String getLbStrategy() {
+        return lbStrategy;
+    }
+
+    public int getEjectAfterFailures() {
+        return ejectAfterFailures;
+    }
+
+    public long getEjectionMillis() {
+        return ejectionMillis;
+    }
+
+    public long getSlowStartMillis() {
+        return slowStartMillis;
+    }
+
+    public long getHealthCheckIntervalMillis() {
+        return healthCheckIntervalMillis;
+    }
+
+    public String getHealthCheckPath() {
+        return healthCheckPath;
+    }
+
+    public int getWarmupConnections() {
+        return warmupConnections;
+    }
+
+    public int getCircuitBreakerFailureRate() {
+        return circuitBreakerFailureRate;
+    }
+
+    public int getCircuitBreakerWindow() {
+        return circuitBreakerWindow;
+    }
+
+    public int getCircuitBreakerMinCalls() {
+        return circuitBreakerMinCalls;
+    }
+
+    public long getCircuitBreakerOpenMillis() {
+        return circuitBreakerOpenMillis;
+    }
+
+    public int getRetryMaxRetries() {
+        return retryMaxRetries;
+    }
+
+    public long getRetryBackoffMillis() {
+        return retryBackoffMillis;
+    }
+
+    public long getRetryMaxBackoffMillis() {
+        return retryMaxBackoffMillis;
+    }
+
+    public int getRetryBudgetPercent() {
+        return retryBudgetPercent;
+    }
+
+    public int getRetryBudgetMinPerSecond() {
+        return retryBudgetMinPerSecond;
+    }
+
+    public boolean isHedge() {
+        return hedge;
+    }
+
+    public int getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    public long getHedgeMinDelayMillis() {
+        return hedgeMinDelayMillis;
+    }
+
+    /**
+     * 요청 본문을 gzip으로 압축해야 하는지 여부
+     *
+     * @param length 직렬화된 본문 크기 (바이트)
+     */
+    public boolean shouldCompressRequest(int length) {
+        return requestCompression && length >= requestCompressionMinBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "baseUrls=" + baseUrls
+            + ", maxTotal=" + maxTotal
+            + ", maxPerRoute=" + maxPerRoute
+            + ", connectTimeoutMs=" + connectTimeoutMillis
+            + ", connectionRequestTimeoutMs=" + connectionRequestTimeoutMillis
+            + ", responseTimeoutMs=" + responseTimeoutMillis
+            + ", socketTimeoutMs=" + socketTimeoutMillis
+            + ", keepAliveMs=" + keepAliveMillis
+            + ", idleEvictionMs=" + idleEvictionMillis
+            + ", validateAfterInactivityMs=" + validateAfterInactivityMillis
+            + ", maxResponseBytes=" + maxResponseBytes
+            + ", acceptEncoding=" + acceptEncoding
+            + ", requestCompression=" + requestCompression
+            + ", requestCompressionMinBytes=" + requestCompressionMinBytes
+            + ", jsonPassthrough=" + jsonPassthrough
+            + ", conditionalGetMaxEntries=" + conditionalGetMaxEntries
+            + ", conditionalGetMaxBytes=" + conditionalGetMaxBytes
+            + ", lbStrategy=" + lbStrategy
+            + ", ejectAfterFailures=" + ejectAfterFailures
+            + ", ejectionMs=" + ejectionMillis
+            + ", slowStartMs=" + slowStartMillis
+            + ", healthCheckIntervalMs=" + healthCheckIntervalMillis
+            + ", healthCheckPath=" + healthCheckPath
+            + ", warmupConnections=" + warmupConnections
+            + ", circuitBreakerFailureRate=" + circuitBreakerFailureRate
+            + ", circuitBreakerWindow=" + circuitBreakerWindow
+            + ", circuitBreakerMinCalls=" + circuitBreakerMinCalls
+            + ", circuitBreakerOpenMs=" + circuitBreakerOpenMillis
+            + ", retryMaxRetries=" + retryMaxRetries
+            + ", retryBackoffMs=" + retryBackoffMillis
+            + ", retryMaxBackoffMs=" + retryMaxBackoffMillis
+            + ", retryBudgetPercent=" + retryBudgetPercent
+            + ", retryBudgetMinPerSecond=" + retryBudgetMinPerSecond
+            + ", hedge=" + hedge
+            + ", hedgePercentile=" + hedgePercentile
+            + ", hedgeMinDelayMs=" + hedgeMinDelayMillis;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.mcpserver.portal;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 포털 JSON 응답 원본 (passthrough)
+ *
+ * 포털이 보낸 JSON 바이트를 Map으로 파싱하지 않고 그대로 보관합니다.
+ * ")]}'" 접두사와 앞뒤 공백은 복사하지 않고 offset/length로만 제외하며,
+ * 생성 시 토큰 단위로 한 번만 검사하여 올바른 JSON 문서인지 확인합니다.
+ *
+ * 직렬화하면 JSON 문자열 값(도구 결과의 "text")으로 출력되며,
+ * UTF-8 출력에서는 바이트를 그대로 이스케이프하여 씁니다. (String 변환 없음)
+ */
+@JsonSerialize(using = PortalJsonBody.TextSerializer.class)
+public final class PortalJsonBody {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final byte[] XSSI_PREFIX = ")]}'".getBytes(StandardCharsets.US_ASCII);
+
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+
+    private PortalJsonBody(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * 포털 응답 바이트에서 JSON 본문을 만듭니다.
+     *
+     * @param bytes UTF-8 응답 본문
+     * @return JSON 본문, 본문이 비어 있으면 null
+     * @throws IOException 올바른 JSON 문서가 아닌 경우
+     */
+    public static PortalJsonBody of(byte[] bytes) throws IOException {
+        return of(bytes, bytes.length);
+    }
+
+    /**
+     * 포털 응답 바이트의 앞부분(0 ~ length)에서 JSON 본문을 만듭니다. (버퍼 복사 없음)
+     *
+     * @param bytes UTF-8 응답 본문 버퍼
+     * @param length 버퍼 중 유효한 길이
+     * @return JSON 본문, 본문이 비어 있으면 null
+     * @throws IOException 올바른 JSON 문서가 아닌 경우
+     */
+    public static PortalJsonBody of(byte[] bytes, int length) throws IOException {
+        int start = skipWhitespace(bytes, 0, length);
+        // JSONP/XSSI 방지 접두사 제거 (예: ")]}'," 또는 ")]}'")
+        if (startsWith(bytes, start, length, XSSI_PREFIX)) {
+            start += XSSI_PREFIX.length;
+            if (start < length && bytes[start] == ',') {
+                start++;
+            }
+            start = skipWhitespace(bytes, start, length);
+        }
+        int end = length;
+        while (end > start && isWhitespace(bytes[end - 1])) {
+            end--;
+        }
+        if (end == start) {
+            return null;
+        }
+        validate(bytes, start, end - start);
+        return new PortalJsonBody(bytes, start, end - start);
+    }
+
+    /**
+     * 값을 만들지 않고 토큰만 읽어 JSON 문서 하나로 끝나는지 검사합니다.
+     */
+    private static void validate(byte[] bytes, int offset, int length) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(bytes, offset, length)) {
+            if (parser.nextToken() == null) {
+                throw new IOException("빈 JSON 응답");
+            }
+            parser.skipChildren();
+            JsonToken trailing = parser.nextToken();
+            if (trailing != null) {
+                throw new IOException("JSON 문서 뒤에 불필요한 토큰이 있습니다: " + trailing);
+            }
+        }
+    }
+
+    private static int skipWhitespace(byte[] bytes, int index, int limit) {
+        while (index < limit && isWhitespace(bytes[index])) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static boolean startsWith(byte[] bytes, int index, int limit, byte[] prefix) {
+        if (limit - index < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[index + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * JSON 본문 길이 (바이트)
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * JSON 본문 파서를 만듭니다. (Map 등으로 다시 읽어야 하는 경우)
+     */
+    public JsonParser createParser(JsonFactory factory) throws IOException {
+        return factory.createParser(bytes, offset, length);
+    }
+
+    /**
+     * JSON 본문 문자열 (로그/디버깅용 - 호출할 때마다 디코딩합니다)
+     */
+    @Override
+    public String toString() {
+        return new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * JSON 문자열 값으로 직렬화 - UTF-8 출력이면 바이트를 그대로 이스케이프하여 씁니다.
+     */
+    static class TextSerializer extends StdSerializer<PortalJsonBody> {
+
+        private static final long serialVersionUID = 1L;
+
+        TextSerializer() {
+            super(PortalJsonBody.class);
+        }
+
+        @Override
+        public void serialize(PortalJsonBody value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            try {
+                gen.writeUTF8String(value.bytes, value.offset, value.length);
+            } catch (UnsupportedOperationException e) {
+                // Writer 기반 출력(writeValueAsString 등)은 UTF-8 바이트 출력을 지원하지 않음
+                gen.writeString(value.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.example.mcpserver.portal;
+
+import com.example.mcpserver.util.LogUtil;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 포털 노드 부하 분산기 (클라이언트 측)
+ *
+ * 포털 주소가 여러 개이면 호출마다 노드를 고릅니다.
+ * - p2c (기본): 무작위로 두 노드를 골라 처리 중 요청이 적은 쪽 선택 (power of two choices)
+ * - least-outstanding: 모든 노드 중 처리 중 요청이 가장 적은 노드 선택
+ * 복귀 중인 노드는 가중치(10% ~ 100%) 확률로만 선택 후보에 포함되므로, 부하가 적을 때도 요청을 점진적으로 받습니다.
+ *
+ * 상태 검사
+ * - 수동: 연결 실패/타임아웃/5xx가 연속 eject-after-failures번 나면 노드를 ejection-ms 동안 제외합니다.
+ *   다시 제외될 때마다 제외 시간이 늘어납니다. (최대 10배)
+ * - 능동: health-check-interval-ms마다 모든 노드에 health-check-path로 요청합니다.
+ *   실패는 연속 실패로 집계하며, 능동 검사를 사용하면 제외된 노드는 제외 시간이 지난 뒤 검사에 성공해야 복귀합니다.
+ * 복귀한 노드는 slow-start-ms 동안 가중치를 10%부터 100%까지 올려 요청을 점진적으로 받습니다.
+ *
+ * 모든 노드가 제외되면 가장 먼저 복귀할 노드로 요청을 보냅니다. (요청을 거부하지 않음)
+ */
+public class PortalNodeBalancer {
+
+    private static final double MIN_WEIGHT = 0.1;
+    private static final int MAX_EJECTION_MULTIPLIER = 10;
+
+    private final Node[] nodes;
+    private final boolean leastOutstanding;
+    private final int ejectAfterFailures;
+    private final long ejectionNanos;
+    private final long slowStartNanos;
+    private volatile boolean activeHealthChecks;
+    // 능동 상태 검사 스케줄러 (사용하지 않으면 null)
+    private volatile ScheduledExecutorService healthCheckScheduler;
+
+    /**
+     * @param baseUrls 포털 노드 주소 목록 (1개 이상)
+     * @param settings 부하 분산 / 상태 검사 설정
+     */
+    public PortalNodeBalancer(List<String> baseUrls, PortalHttpClientSettings settings) {
+        if (baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("포털 주소가 없습니다.");
+        }
+        long now = System.nanoTime();
+        this.slowStartNanos = TimeUnit.MILLISECONDS.toNanos(settings.getSlowStartMillis());
+        this.nodes = new Node[baseUrls.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            // 시작 시에는 모든 노드가 전체 가중치
+            nodes[i] = new Node(baseUrls.get(i), now - slowStartNanos);
+        }
+        if (!"p2c".equals(settings.getLbStrategy()) && !"least-outstanding".equals(settings.getLbStrategy())) {
+            LogUtil.errPrintln("알 수 없는 portal.http.lb-strategy: " + settings.getLbStrategy() + " (p2c 사용)");
+        }
+        this.leastOutstanding = "least-outstanding".equals(settings.getLbStrategy());
+        this.ejectAfterFailures = settings.getEjectAfterFailures();
+        this.ejectionNanos = TimeUnit.MILLISECONDS.toNanos(settings.getEjectionMillis());
+    }
+
+    /**
+     * 쉼표로 구분된 포털 주소 목록을 읽습니다. (끝의 '/'는 제거)
+     */
+    public static List<String> parseBaseUrls(String value) {
+        List<String> baseUrls = new ArrayList<>();
+        for (String token : value.split(",")) {
+            String baseUrl = token.trim();
+            while (baseUrl.endsWith("/")) {
+                baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+            }
+            if (!baseUrl.isEmpty()) {
+                baseUrls.add(baseUrl);
+            }
+        }
+        return baseUrls;
+    }
+
+    /**
+     * 모든 노드 주소 (제외된 노드 포함)
+     */
+    public List<String> getBaseUrls() {
+        List<String> baseUrls = new ArrayList<>(nodes.length);
+        for (Node node : nodes) {
+            baseUrls.add(node.baseUrl);
+        }
+        return baseUrls;
+    }
+
+    /**
+     * 요청을 보낼 노드를 고르고 처리 중 요청 수를 늘립니다.
+     * 요청이 끝나면 반드시 release를 호출해야 합니다.
+     */
+    public Node acquire() {
+        Node node = nodes.length == 1 ? nodes[0] : choose(System.nanoTime());
+        node.outstanding.incrementAndGet();
+        node.requests.increment();
+        return node;
+    }
+
+    private Node choose(long now) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Node> candidates = new ArrayList<>(nodes.length);
+        Node rampingFallback = null;
+        for (Node node : nodes) {
+            if (!node.isAvailable(now)) {
+                continue;
+            }
+            double weight = node.weight(now);
+            if (weight >= 1.0 || random.nextDouble() < weight) {
+                candidates.add(node);
+            } else if (rampingFallback == null || weight > rampingFallback.weight(now)) {
+                rampingFallback = node;
+            }
+        }
+        if (candidates.isEmpty() && rampingFallback != null) {
+            // 사용 가능한 노드가 모두 복귀 중 - 가중치가 가장 높은 노드
+            return rampingFallback;
+        }
+        if (candidates.isEmpty()) {
+            // 모든 노드가 제외됨 - 가장 먼저 복귀할 노드로 시도
+            Node earliest = nodes[0];
+            for (Node node : nodes) {
+                if (node.ejectedUntilNanos - earliest.ejectedUntilNanos < 0) {
+                    earliest = node;
+                }
+            }
+            return earliest;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        if (leastOutstanding) {
+            // 같은 부하면 앞쪽 노드에 몰리지 않도록 무작위 위치부터 탐색
+            int start = random.nextInt(candidates.size());
+            Node best = null;
+            int bestScore = Integer.MAX_VALUE;
+            for (int i = 0; i < candidates.size(); i++) {
+                Node node = candidates.get((start + i) % candidates.size());
+                int score = node.outstanding.get();
+                if (score < bestScore) {
+                    best = node;
+                    bestScore = score;
+                }
+            }
+            return best;
+        }
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Node a = candidates.get(first);
+        Node b = candidates.get(second);
+        return a.outstanding.get() <= b.outstanding.get() ? a : b;
+    }
+
+    /**
+     * 요청 완료를 기록합니다.
+     *
+     * @param node acquire로 받은 노드
+     * @param success 노드가 정상 응답했는지 여부 (연결 실패/타임아웃/5xx이면 false)
+     */
+    public void release(Node node, boolean success) {
+        node.outstanding.decrementAndGet();
+        if (success) {
+            onSuccess(node);
+        } else {
+            onFailure(node, "요청 실패");
+        }
+    }
+
+    /**
+     * 상태를 판단할 수 없는 요청 완료(취소 등)를 기록합니다.
+     */
+    public void release(Node node) {
+        node.outstanding.decrementAndGet();
+    }
+
+    private void onSuccess(Node node) {
+        synchronized (node) {
+            node.consecutiveFailures = 0;
+            if (node.ejections > 0 && node.weight(System.nanoTime()) >= 1.0) {
+                // 복귀 후 가중치가 다 올라간 뒤에도 정상이면 제외 시간 배수 초기화
+                node.ejections = 0;
+            }
+        }
+    }
+
+    private void onFailure(Node node, String reason) {
+        node.failures.increment();
+        if (nodes.length == 1) {
+            return;
+        }
+        synchronized (node) {
+            node.consecutiveFailures++;
+            if (node.ejected || node.consecutiveFailures < ejectAfterFailures) {
+                return;
+            }
+            node.ejections = Math.min(node.ejections + 1, MAX_EJECTION_MULTIPLIER);
+            node.ejected = true;
+            node.ejectedUntilNanos = System.nanoTime() + ejectionNanos * node.ejections;
+        }
+        LogUtil.errPrintln("포털 노드 제외: " + node.baseUrl + " (" + reason + " 연속 " + ejectAfterFailures + "회, "
+            + TimeUnit.NANOSECONDS.toMillis(ejectionNanos * node.ejections) + "ms)");
+    }
+
+    private void reinstate(Node node, long now) {
+        synchronized (node) {
+            if (!node.ejected) {
+                return;
+            }
+            node.ejected = false;
+            node.consecutiveFailures = 0;
+            node.rampStartNanos = now;
+        }
+        LogUtil.infoPrintln("포털 노드 복귀: " + node.baseUrl);
+    }
+
+    /**
+     * 능동 상태 검사를 시작합니다. (노드가 2개 이상이고 주기가 0보다 큰 경우에만)
+     *
+     * @param intervalMillis 검사 주기
+     * @param probe 노드 주소를 받아 정상 여부를 돌려주는 검사 함수
+     */
+    public void startHealthChecks(long intervalMillis, Function<String, CompletableFuture<Boolean>> probe) {
+        if (nodes.length == 1 || intervalMillis <= 0) {
+            return;
+        }
+        activeHealthChecks = true;
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "portal-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthCheckScheduler = scheduler;
+        scheduler.scheduleWithFixedDelay(() -> {
+            for (Node node : nodes) {
+                try {
+                    probe.apply(node.baseUrl).whenComplete((healthy, e) -> onProbe(node, e == null && Boolean.TRUE.equals(healthy)));
+                } catch (Exception e) {
+                    onProbe(node, false);
+                }
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 능동 상태 검사를 멈춥니다.
+     */
+    public void stopHealthChecks() {
+        ScheduledExecutorService scheduler = healthCheckScheduler;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void onProbe(Node node, boolean healthy) {
+        node.lastProbeHealthy = healthy;
+        if (!healthy) {
+            onFailure(node, "상태 검사 실패");
+            return;
+        }
+        long now = System.nanoTime();
+        if (node.ejected && now - node.ejectedUntilNanos >= 0) {
+            reinstate(node, now);
+        }
+    }
+
+    /**
+     * 노드별 상태를 반환합니다.
+     */
+    public Map<String, Object> getStats() {
+        long now = System.nanoTime();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Node node : nodes) {
+            Map<String, Object> nodeStats = new LinkedHashMap<>();
+            nodeStats.put("state", node.ejected ? "ejected" : node.weight(now) < 1.0 ? "ramping" : "healthy");
+            nodeStats.put("outstanding", node.outstanding.get());
+            nodeStats.put("weight", node.ejected ? 0.0 : node.weight(now));
+            nodeStats.put("requests", node.requests.sum());
+            nodeStats.put("failures", node.failures.sum());
+            nodeStats.put("consecutiveFailures", node.consecutiveFailures);
+            if (node.ejected) {
+                nodeStats.put("ejectedForMs", Math.max(0, TimeUnit.NANOSECONDS.toMillis(node.ejectedUntilNanos - now)));
+            }
+            if (activeHealthChecks) {
+                nodeStats.put("lastProbeHealthy", node.lastProbeHealthy);
+            }
+            stats.put(node.baseUrl, nodeStats);
+        }
+        return stats;
+    }
+
+    /**
+     * 포털 노드
+     */
+    public final class Node {
+        private final String baseUrl;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private volatile int consecutiveFailures;
+        private volatile boolean ejected;
+        private volatile long ejectedUntilNanos;
+        private volatile int ejections;
+        private volatile long rampStartNanos;
+        private volatile Boolean lastProbeHealthy;
+
+        private Node(String baseUrl, long rampStartNanos) {
+            this.baseUrl = baseUrl;
+            this.rampStartNanos = rampStartNanos;
+        }
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        private boolean isAvailable(long now) {
+            if (!ejected) {
+                return true;
+            }
+            // 능동 검사를 사용하지 않으면 제외 시간이 지나면 바로 복귀
+            if (!activeHealthChecks && now - ejectedUntilNanos >= 0) {
+                reinstate(this, now);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * 복귀 후 경과 시간에 따른 가중치 (10% ~ 100%)
+         */
+        private double weight(long now) {
+            if (slowStartNanos <= 0) {
+                return 1.0;
+            }
+            double ramp = (double) (now - rampStartNanos) / slowStartNanos;
+            return Math.max(MIN_WEIGHT, Math.min(1.0, ramp));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.mcpserver.portal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpMethod;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 포털 API 응답 캐시 (TTL + LRU)
+ *
+ * 조회 전용 도구(PortalApiMapping.withCacheTtl로 지정)의 포털 응답을 잠시 보관하여
+ * 같은 요청이 반복될 때 포털을 다시 호출하지 않도록 합니다.
+ *
+ * 캐시 키는 HTTP 메서드, 확장된 엔드포인트, 정규화된 요청 본문(키 정렬 JSON),
+ * access_token의 SHA-256 해시로 구성되므로 사용자 간에 응답이 공유되지 않습니다.
+ * 최대 항목 수를 넘으면 가장 오래 사용되지 않은 항목부터 제거합니다.
+ */
+public class PortalResponseCache {
+
+    private final int maxEntries;
+    private final ObjectMapper canonicalMapper;
+    // accessOrder=true: 조회 순서 기준 LRU
+    private final LinkedHashMap<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public PortalResponseCache(int maxEntries, ObjectMapper objectMapper) {
+        this.maxEntries = maxEntries;
+        this.canonicalMapper = objectMapper.copy()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > PortalResponseCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 캐시 키를 생성합니다.
+     *
+     * @param method HTTP 메서드
+     * @param endpoint 확장된 엔드포인트 (경로 + 쿼리 문자열)
+     * @param requestBody 요청 본문 (null 가능)
+     * @param accessToken 접근 토큰 (null 가능, 해시만 키에 포함)
+     * @return 캐시 키
+     */
+    public String buildKey(HttpMethod method, String endpoint, Object requestBody, String accessToken) {
+        StringBuilder key = new StringBuilder(128)
+            .append(method.name()).append(' ').append(endpoint)
+            .append('\n').append(tokenScope(accessToken));
+        if (requestBody != null) {
+            try {
+                key.append('\n').append(canonicalMapper.writeValueAsString(requestBody));
+            } catch (Exception e) {
+                throw new IllegalArgumentException("캐시 키 생성 실패: " + e.getMessage(), e);
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * 캐시된 응답을 조회합니다.
+     *
+     * @param key 캐시 키
+     * @return 캐시된 응답, 없거나 만료되었으면 null
+     */
+    public Object get(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAtNanos - System.nanoTime() <= 0) {
+                entries.remove(key);
+                expirations.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    /**
+     * 응답을 캐시에 저장합니다. null 응답은 저장하지 않습니다.
+     *
+     * @param key 캐시 키
+     * @param value 포털 응답
+     * @param ttl 보관 시간
+     */
+    public void put(String key, Object value, Duration ttl) {
+        if (value == null || ttl == null || ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+        Entry entry = new Entry(value, System.nanoTime() + ttl.toNanos());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * 캐시를 모두 비웁니다.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * 캐시 통계를 반환합니다.
+     */
+    public Map<String, Object> getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        return stats;
+    }
+
+    /**
+     * access_token의 SHA-256 해시 (토큰 원문은 키에 남기지 않음)
+     */
+    static String tokenScope(String accessToken) {
+        if (accessToken == null || accessToken.trim().isEmpty()) {
+            return "anonymous";
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(accessToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e);
+        }
+    }
+
+    private static class Entry {
+        private final Object value;
+        private final long expiresAtNanos;
+
+        private Entry(Object value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
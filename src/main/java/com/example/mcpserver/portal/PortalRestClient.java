@@ -1,17 +1,40 @@
 package com.example.mcpserver.portal;
 
+import jakarta.annotation.PreDestroy;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.http.MediaType;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.mcpserver.util.ExecutorUtil;
 import com.example.mcpserver.util.LogUtil;
+import com.example.mcpserver.util.RequestCancellation;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
 
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 포털 REST API 클라이언트
@@ -30,17 +53,40 @@ import java.util.Map;
 public class PortalRestClient {
     
     private final RestTemplate restTemplate;
-    private final String portalBaseUrl;
+    private final CloseableHttpAsyncClient asyncHttpClient;
+    // 포털 노드 선택 (주소가 여러 개이면 호출마다 부하 분산)
+    private final PortalNodeBalancer nodeBalancer;
     private final ObjectMapper objectMapper;
+    private final boolean jsonPassthrough;
+    // 응답 본문 최대 크기, 압축 설정
+    private final PortalHttpClientSettings httpSettings;
+    // GET 응답의 ETag / Last-Modified 저장소 (304 Not Modified 응답 시 재사용)
+    private final ConditionalGetStore conditionalGetStore;
+    // 엔드포인트별 회로 차단 / 재시도 / 헤지 요청
+    private final PortalCallPolicy callPolicy;
+    // 비동기 응답 후처리용 Executor (HTTP I/O 스레드를 막지 않기 위해)
+    private final ExecutorService callbackExecutor;
     
-    public PortalRestClient(RestTemplate restTemplate) {
+    public PortalRestClient(RestTemplate restTemplate, CloseableHttpAsyncClient asyncHttpClient,
+                            PortalHttpClientSettings httpSettings) {
         this.restTemplate = restTemplate;
+        this.asyncHttpClient = asyncHttpClient;
         this.objectMapper = new ObjectMapper();
         // UTF-8 인코딩 보장을 위한 설정
         this.objectMapper.configure(com.fasterxml.jackson.core.JsonGenerator.Feature.ESCAPE_NON_ASCII, false);
-        // 포털 API URL (환경 변수 우선, 없으면 기본값 - McpStdioServer는 Spring Boot 컨텍스트를 시작하지 않고 직접 main 메서드로 실행)
-        String envUrl = System.getenv("PORTAL_API_BASE_URL");
-        this.portalBaseUrl = envUrl != null ? envUrl : "https://localhost:8083";
+        // 포털 API URL (portal.api.base-url, stdio 모드는 환경 변수 PORTAL_API_BASE_URL)
+        // 여러 노드는 쉼표로 구분 (예: https://portal1:8083,https://portal2:8083)
+        this.nodeBalancer = new PortalNodeBalancer(httpSettings.getBaseUrls(), httpSettings);
+        this.nodeBalancer.startHealthChecks(httpSettings.getHealthCheckIntervalMillis(), this::probe);
+        // JSON 응답을 Map으로 파싱하지 않고 원본 그대로 전달할지 여부 (기본: true)
+        this.jsonPassthrough = httpSettings.isJsonPassthrough();
+        this.httpSettings = httpSettings;
+        this.conditionalGetStore = new ConditionalGetStore(
+            httpSettings.getConditionalGetMaxEntries(), httpSettings.getConditionalGetMaxBytes());
+        this.callPolicy = new PortalCallPolicy(httpSettings);
+        this.callbackExecutor = ExecutorUtil.newRequestExecutor("portal-callback");
+        // 첫 도구 호출 전에 포털 연결을 미리 열어 둠 (portal.http.warmup-connections > 0인 경우, 완료를 기다리지 않음)
+        warmUpConnections();
     }
     
     /**
@@ -62,11 +108,207 @@ public class PortalRestClient {
      * @param method HTTP 메서드 (GET, POST, PUT, DELETE)
      * @param requestBody 요청 본문 (POST/PUT 시 사용)
      * @param access_token 접근 토큰(Bearer), 선택적
-     * @return API 응답
+     * @return API 응답 (JSON이면 PortalJsonBody, passthrough 비활성화 시 Map / 그 외 String,
+     *         최대 크기를 넘어 잘린 응답은 잘렸음을 표시한 String)
      */
     public Object callPortalApi(String endpoint, HttpMethod method, Object requestBody, String access_token) {
-        String url = portalBaseUrl + "/mcp" + endpoint;
+        String path = "/mcp" + endpoint;
+        HttpHeaders headers = buildHeaders(endpoint, method, requestBody, access_token);
+        ConditionalGetStore.Validation validation = beginValidation(path, method, access_token, headers);
+        PortalNodeBalancer.Node node = nodeBalancer.acquire();
+        String url = node.getBaseUrl() + path;
+        logRequest(url, method, headers, requestBody);
+        HttpEntity<?> entity = new HttpEntity<>(requestBody, headers);
+        
+        // 연결 실패/타임아웃/5xx만 노드 실패로 집계
+        boolean nodeHealthy = true;
+        try {
+            // 응답 스트림을 최대 크기까지만 바이트로 읽기 (JSON은 문자열로 디코딩하지 않고 그대로 전달하기 위해)
+            // 엔드포인트는 이미 인코딩되어 있으므로 URI로 전달 (RestTemplate의 URI 템플릿 재인코딩 방지)
+            return restTemplate.execute(
+                URI.create(url),
+                method,
+                restTemplate.httpEntityCallback(entity),
+                response -> toValidatedResult(
+                    response.getStatusCode().value(),
+                    validation,
+                    response.getHeaders().getETag(),
+                    response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED),
+                    BoundedResponseBody.read(response.getBody(), httpSettings.getMaxResponseBytes(), response.getHeaders().getContentLength()),
+                    response.getHeaders().getContentType())
+            );
+        } catch (org.springframework.web.client.HttpClientErrorException e) {
+            // HTTP 4xx 에러인 경우 상세 정보 포함
+            throw new RuntimeException("포털 API 호출 실패 (HTTP " + e.getStatusCode() + "): " + e.getMessage() + 
+                (e.getResponseBodyAsString() != null ? " 응답: " + e.getResponseBodyAsString() : ""), e);
+        } catch (Exception e) {
+            nodeHealthy = !(e instanceof ResourceAccessException || e instanceof HttpServerErrorException);
+            throw new RuntimeException("포털 API 호출 실패: " + e.getMessage(), e);
+        } finally {
+            nodeBalancer.release(node, nodeHealthy);
+        }
+    }
+    
+    /**
+     * 포털 REST API를 비동기로 호출합니다. (access_token 포함)
+     * 
+     * HTTP 요청을 보내는 동안 호출 스레드를 점유하지 않으며, 응답 처리는 별도 Executor에서 수행합니다.
+     * 호출 스레드에 RequestCancellation이 바인딩되어 있으면 MCP 요청 취소 시 HTTP 요청도 중단되고,
+     * 반환된 Future를 cancel해도 HTTP 요청이 중단됩니다.
+     * 회로 차단은 메서드와 경로(쿼리 문자열 제외) 단위로 적용하며, GET만 재시도 / 헤지합니다.
+     * 
+     * @param endpoint API 엔드포인트 (예: "/employees/123")
+     * @param method HTTP 메서드 (GET, POST, PUT, DELETE)
+     * @param requestBody 요청 본문 (POST/PUT 시 사용)
+     * @param access_token 접근 토큰(Bearer), 선택적
+     * @return API 응답 Future (값은 callPortalApi와 같음)
+     */
+    public CompletableFuture<Object> callPortalApiAsync(String endpoint, HttpMethod method, Object requestBody, String access_token) {
+        int query = endpoint.indexOf('?');
+        String endpointKey = method.name() + " " + (query >= 0 ? endpoint.substring(0, query) : endpoint);
+        return callPortalApiAsync(endpoint, method, requestBody, access_token, endpointKey, method == HttpMethod.GET);
+    }
+    
+    /**
+     * 포털 REST API를 비동기로 호출합니다. (회로 차단 / 재시도 / 헤지 단위 지정)
+     * 
+     * 엔드포인트별 회로가 열려 있으면 포털을 호출하지 않고 바로 실패합니다.
+     * 멱등 호출은 연결 실패/타임아웃/5xx 시 재시도 예산 안에서 재시도하고,
+     * portal.http.hedge가 켜져 있으면 응답이 늦을 때 두 번째 요청을 보냅니다. (PortalCallPolicy)
+     * 
+     * @param endpoint API 엔드포인트 (예: "/employees/123")
+     * @param method HTTP 메서드 (GET, POST, PUT, DELETE)
+     * @param requestBody 요청 본문 (POST/PUT 시 사용)
+     * @param access_token 접근 토큰(Bearer), 선택적
+     * @param endpointKey 회로 차단 / 응답 시간 집계 단위 (예: "GET /employees/{employeeId}")
+     * @param idempotent 멱등 호출 여부 (재시도 / 헤지 허용)
+     * @return API 응답 Future (값은 callPortalApi와 같음)
+     */
+    public CompletableFuture<Object> callPortalApiAsync(String endpoint, HttpMethod method, Object requestBody, String access_token,
+                                                        String endpointKey, boolean idempotent) {
+        String path = "/mcp" + endpoint;
+        HttpHeaders headers = buildHeaders(endpoint, method, requestBody, access_token);
+        
+        byte[] body = null;
+        if (requestBody != null && hasRequestBody(method)) {
+            try {
+                body = objectMapper.writeValueAsBytes(requestBody);
+                if (httpSettings.shouldCompressRequest(body.length)) {
+                    // 큰 본문은 gzip으로 압축하여 전송
+                    body = GzipRequestInterceptor.gzip(body);
+                    headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                }
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(new RuntimeException("포털 API 호출 실패: 요청 본문 직렬화 실패: " + e.getMessage(), e));
+            }
+        }
+        
+        ConditionalGetStore.Validation validation = beginValidation(path, method, access_token, headers);
+        byte[] requestBytes = body;
+        CompletableFuture<Object> result = callPolicy.execute(endpointKey, idempotent,
+            () -> sendOnce(path, method, headers, requestBytes, requestBody, validation));
+        
+        // MCP 요청 취소 시 진행 중인 HTTP 요청(재시도 / 헤지 요청 포함) 중단
+        RequestCancellation cancellation = RequestCancellation.current();
+        if (cancellation != null) {
+            cancellation.attach(() -> result.cancel(true));
+        }
+        return result;
+    }
+    
+    /**
+     * 노드 하나를 골라 HTTP 요청 한 번을 보냅니다. (재시도 / 헤지 요청마다 호출)
+     * 
+     * @return 응답 Future (포털 장애로 인한 실패는 retryable PortalCallException, cancel하면 HTTP 요청 중단)
+     */
+    private CompletableFuture<Object> sendOnce(String path, HttpMethod method, HttpHeaders headers, byte[] body,
+                                               Object requestBody, ConditionalGetStore.Validation validation) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        PortalNodeBalancer.Node node = nodeBalancer.acquire();
+        String url = node.getBaseUrl() + path;
+        logRequest(url, method, headers, requestBody);
+        
+        SimpleRequestBuilder builder = SimpleRequestBuilder.create(method.name()).setUri(URI.create(url));
+        headers.forEach((name, values) -> {
+            // Content-Type은 본문과 함께 설정
+            if (!HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                values.forEach(value -> builder.addHeader(name, value));
+            }
+        });
+        if (body != null) {
+            builder.setBody(body, ContentType.APPLICATION_JSON);
+        }
+        
+        // 응답은 최대 크기까지만 보관하며 수신 (SimpleHttpResponse는 전체 본문을 메모리에 모음)
+        Future<BoundedResponseConsumer.Result> exchange = asyncHttpClient.execute(
+                SimpleRequestProducer.create(builder.build()),
+                new BoundedResponseConsumer(httpSettings.getMaxResponseBytes()),
+                new FutureCallback<BoundedResponseConsumer.Result>() {
+            @Override
+            public void completed(BoundedResponseConsumer.Result response) {
+                nodeBalancer.release(node, response.getCode() < 500);
+                try {
+                    callbackExecutor.execute(() -> complete(result, response, validation));
+                } catch (RejectedExecutionException e) {
+                    complete(result, response, validation);
+                }
+            }
+            
+            @Override
+            public void failed(Exception e) {
+                nodeBalancer.release(node, false);
+                String reason = e instanceof SocketTimeoutException || e instanceof TimeoutException
+                    ? "응답 시간 초과 (" + e.getMessage() + ")"
+                    : e.getMessage();
+                result.completeExceptionally(new PortalCallException("포털 API 호출 실패: " + reason, e, true));
+            }
+            
+            @Override
+            public void cancelled() {
+                nodeBalancer.release(node);
+                result.completeExceptionally(new CancellationException("포털 API 호출이 취소되었습니다."));
+            }
+        });
         
+        // Future 취소 시 HTTP 요청 중단
+        result.whenComplete((value, e) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * 비동기 응답을 callPortalApi와 같은 형식의 결과로 변환하여 Future를 완료합니다.
+     */
+    private void complete(CompletableFuture<Object> result, BoundedResponseConsumer.Result response,
+                          ConditionalGetStore.Validation validation) {
+        try {
+            BoundedResponseBody body = response.getBody();
+            if (response.getCode() >= 400) {
+                String responseText = body.toString(StandardCharsets.UTF_8);
+                // 5xx만 포털 장애로 보고 재시도 / 회로 차단에 집계
+                throw new PortalCallException("포털 API 호출 실패 (HTTP " + response.getCode() + " " + response.getReasonPhrase() + ")"
+                    + (responseText.isEmpty() ? "" : " 응답: " + responseText), response.getCode() >= 500);
+            }
+            String contentType = response.getContentType();
+            result.complete(toValidatedResult(
+                response.getCode(),
+                validation,
+                response.getHeader(HttpHeaders.ETAG),
+                response.getHeader(HttpHeaders.LAST_MODIFIED),
+                body,
+                contentType != null ? MediaType.parseMediaType(contentType) : null));
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+    }
+    
+    /**
+     * 요청 헤더를 구성합니다.
+     */
+    private HttpHeaders buildHeaders(String endpoint, HttpMethod method, Object requestBody, String access_token) {
         HttpHeaders headers = new HttpHeaders();
         
         // JSP 페이지 요청인 경우 Content-Type을 다르게 설정
@@ -74,104 +316,276 @@ public class PortalRestClient {
             headers.set("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
         } else {
             // JSON 요청인 경우 Content-Type과 Accept 모두 설정 (UTF-8 인코딩 명시)
-            if (method == HttpMethod.POST || method == HttpMethod.PUT) {
+            if (hasRequestBody(method)) {
                 headers.set("Content-Type", "application/json;charset=UTF-8");
             }
             headers.set("Accept", "application/json;charset=UTF-8");
         }
         
+        // 압축 응답 요청 (gzip/deflate 응답은 받는 대로 압축 해제)
+        if (!httpSettings.getAcceptEncoding().isEmpty()) {
+            headers.set(HttpHeaders.ACCEPT_ENCODING, httpSettings.getAcceptEncoding());
+        }
+        
         // access_token이 있으면 Authorization 헤더에 추가
-        LogUtil.debugPrintln("[DEBUG] 전달받은 access_token: " + access_token);
         if (access_token != null && !access_token.trim().isEmpty()) {
             headers.setBearerAuth(access_token);
-            LogUtil.debugPrintln("[DEBUG] Authorization 헤더 값 설정(Bearer)");
+            // 토큰 원문은 로그에 남기지 않음
+            LogUtil.debugPrintf("[DEBUG] Authorization 헤더 값 설정(Bearer, 토큰 길이 {})", access_token.length());
         } else {
             LogUtil.debugPrintln("[DEBUG] access_token이 없습니다.");
         }
         
-        // 모든 헤더 로그 출력
-        LogUtil.debugPrintln("[DEBUG] 요청 URL: " + url);
-        LogUtil.debugPrintln("[DEBUG] 요청 메서드: " + method);
-        LogUtil.debugPrintln("[DEBUG] 요청 헤더: " + headers);
-        
-        // 요청 본문 설정 및 로그 출력
-        HttpEntity<?> entity;
-        if (requestBody != null && (method == HttpMethod.POST || method == HttpMethod.PUT)) {
+        if (requestBody != null && hasRequestBody(method)) {
             // Content-Type을 MediaType으로 명시적으로 설정 (UTF-8 charset 포함)
             headers.setContentType(new MediaType("application", "json", StandardCharsets.UTF_8));
-            entity = new HttpEntity<>(requestBody, headers);
-            
-            // 요청 본문 로그 출력
-            try {
-                String requestBodyJson = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(requestBody);
-                LogUtil.debugPrintln("[DEBUG] 요청 본문:\n" + requestBodyJson);
-            } catch (Exception e) {
-                LogUtil.debugPrintln("[DEBUG] 요청 본문 로그 출력 실패: " + e.getMessage());
-                LogUtil.debugPrintln("[DEBUG] 요청 본문 (toString): " + requestBody);
-            }
-        } else {
-            entity = new HttpEntity<>(requestBody, headers);
-            if (requestBody != null) {
-                LogUtil.debugPrintln("[DEBUG] 요청 본문: " + requestBody);
-            } else {
-                LogUtil.debugPrintln("[DEBUG] 요청 본문: 없음");
-            }
         }
+        return headers;
+    }
+    
+    /**
+     * 요청 정보를 디버그 로그로 출력합니다. (디버그 레벨이 꺼져 있으면 메시지를 만들지 않음)
+     */
+    private void logRequest(String url, HttpMethod method, HttpHeaders headers, Object requestBody) {
+        // 모든 헤더 로그 출력
+        LogUtil.debugPrintf("[DEBUG] 요청 URL: {}", url);
+        LogUtil.debugPrintf("[DEBUG] 요청 메서드: {}", method);
+        LogUtil.debugPrintf("[DEBUG] 요청 헤더: {}", headers);
         
-        try {
-            // 먼저 String으로 응답 받기 (Content-Type 확인을 위해)
-            ResponseEntity<String> response = restTemplate.exchange(
-                url,
-                method,
-                entity,
-                String.class
-            );
-            
-            String responseBody = response.getBody();
-            if (responseBody == null || responseBody.trim().isEmpty()) {
-                return null;
-            }
-            
-            // Content-Type 헤더로 응답 타입 판단
-            MediaType contentTypeHeader = response.getHeaders().getContentType();
-            String contentType = contentTypeHeader != null ? contentTypeHeader.toString() : "";
-            LogUtil.debugPrintln("[DEBUG] 응답 Content-Type: " + contentType);
-            
-            if (contentType.contains("application/json")) {
-                // JSON 응답인 경우 파싱
+        // 요청 본문 로그 출력 (한 줄 JSON - pretty print는 하지 않음)
+        if (requestBody != null && hasRequestBody(method)) {
+            LogUtil.debugPrintln(() -> {
                 try {
-                    // JSONP 형식 응답 처리 (예: ")]}', {...}" 또는 ")]}', {...}")
-                    String jsonBody = responseBody;
-                    if (responseBody.startsWith(")]}',")) {
-                        // JSONP 접두사 제거
-                        jsonBody = responseBody.substring(5).trim();
-                    } else if (responseBody.startsWith(")]}'")) {
-                        // 다른 JSONP 형식
-                        jsonBody = responseBody.substring(4).trim();
-                    }
-                    
-                    // JSON 문자열을 Map으로 파싱
-                    Map<String, Object> parsedResponse = objectMapper.readValue(jsonBody, Map.class);
-                    return parsedResponse;
+                    return "[DEBUG] 요청 본문: " + objectMapper.writeValueAsString(requestBody);
                 } catch (Exception e) {
-                    throw new RuntimeException("포털 API 응답 파싱 실패: " + e.getMessage(), e);
+                    return "[DEBUG] 요청 본문 로그 출력 실패: " + e.getMessage() + ", 요청 본문 (toString): " + requestBody;
                 }
-            } else if (contentType.contains("text/html")) {
-                // HTML 응답인 경우 String 그대로 반환
-                return responseBody;
-            } else {
-                // 기타 타입도 String으로 반환
-                return responseBody;
+            });
+        } else {
+            LogUtil.debugPrintf("[DEBUG] 요청 본문: {}", requestBody != null ? requestBody : "없음");
+        }
+    }
+    
+    /**
+     * GET 요청이면 보관된 ETag / Last-Modified로 조건부 요청 헤더를 추가합니다.
+     * 
+     * @return 조건부 요청 (GET이 아니거나 저장소를 사용하지 않으면 null)
+     */
+    private ConditionalGetStore.Validation beginValidation(String path, HttpMethod method, String access_token, HttpHeaders headers) {
+        return method == HttpMethod.GET ? conditionalGetStore.begin(path, access_token, headers) : null;
+    }
+    
+    /**
+     * 응답을 결과 객체로 변환하고 조건부 GET 저장소를 갱신합니다.
+     * 304 Not Modified이면 보관된 결과를 그대로 반환합니다.
+     */
+    private Object toValidatedResult(int status, ConditionalGetStore.Validation validation, String etag, String lastModified,
+                                     BoundedResponseBody body, MediaType contentType) {
+        if (validation != null && validation.isNotModified(status)) {
+            LogUtil.debugPrintln("[DEBUG] 포털 응답 변경 없음 (304), 보관된 응답 사용");
+            return validation.cachedResult();
+        }
+        Object value = toResult(body, contentType);
+        if (validation != null && status == 200 && !body.isTruncated()) {
+            // 결과가 참조하는 응답 버퍼 크기 기준으로 저장소 크기를 계산
+            validation.update(etag, lastModified, value, body.bytes().length);
+        }
+        return value;
+    }
+    
+    /**
+     * 포털 노드 상태 검사 요청을 보냅니다. (5xx가 아닌 응답이면 정상)
+     */
+    private CompletableFuture<Boolean> probe(String baseUrl) {
+        return requestHealthCheckPath(baseUrl).thenApply(status -> status > 0 && status < 500);
+    }
+    
+    /**
+     * 포털 노드마다 연결을 미리 열어 둡니다. (portal.http.warmup-connections)
+     * 
+     * 첫 도구 호출이 TCP 연결 / TLS 핸드셰이크 비용을 내지 않도록 상태 검사 경로로 요청을 보내 연결을 풀에 남겨 둡니다.
+     * 노드마다 연결 하나를 먼저 맺은 뒤 나머지를 동시에 열어, 나머지 연결은 첫 연결의 TLS 세션을 재개할 수 있게 합니다.
+     * (비동기 클라이언트의 SSLContext는 같은 노드에 대한 세션을 보관)
+     * 예열 요청은 부하 분산 / 상태 검사 통계에 포함하지 않으며, 실패해도 로그만 남깁니다.
+     * 
+     * @return 예열이 끝나면 완료되는 Future (응답을 받은 예열 요청 수)
+     */
+    public CompletableFuture<Integer> warmUpConnections() {
+        int connections = httpSettings.getWarmupConnections();
+        if (connections <= 0) {
+            return CompletableFuture.completedFuture(0);
+        }
+        long startNanos = System.nanoTime();
+        List<String> baseUrls = nodeBalancer.getBaseUrls();
+        CompletableFuture<?>[] nodes = new CompletableFuture<?>[baseUrls.size()];
+        int[] warmed = new int[baseUrls.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            int index = i;
+            String baseUrl = baseUrls.get(i);
+            nodes[i] = requestHealthCheckPath(baseUrl).thenCompose(firstStatus -> {
+                if (firstStatus <= 0) {
+                    // 첫 연결부터 실패하면 나머지는 시도하지 않음
+                    return CompletableFuture.completedFuture(0);
+                }
+                if (connections == 1) {
+                    return CompletableFuture.completedFuture(1);
+                }
+                // 이 콜백은 I/O 스레드에서 첫 연결이 풀에 반환되기 전에 실행되므로 나머지 요청은 모두 새 연결을 엶
+                List<CompletableFuture<Integer>> concurrent = new ArrayList<>(connections - 1);
+                for (int c = 1; c < connections; c++) {
+                    concurrent.add(requestHealthCheckPath(baseUrl));
+                }
+                return CompletableFuture.allOf(concurrent.toArray(new CompletableFuture<?>[0]))
+                    .thenApply(ignored -> 1 + (int) concurrent.stream().filter(f -> f.join() > 0).count());
+            }).thenAccept(count -> {
+                warmed[index] = count;
+                if (count == 0) {
+                    LogUtil.errPrintln("포털 연결 예열 실패: " + baseUrl + httpSettings.getHealthCheckPath());
+                }
+            });
+        }
+        return CompletableFuture.allOf(nodes).thenApply(ignored -> {
+            int total = 0;
+            for (int count : warmed) {
+                total += count;
             }
-        } catch (org.springframework.web.client.HttpClientErrorException e) {
-            // HTTP 4xx 에러인 경우 상세 정보 포함
-            throw new RuntimeException("포털 API 호출 실패 (HTTP " + e.getStatusCode() + "): " + e.getMessage() + 
-                (e.getResponseBodyAsString() != null ? " 응답: " + e.getResponseBodyAsString() : ""), e);
-        } catch (Exception e) {
-            throw new RuntimeException("포털 API 호출 실패: " + e.getMessage(), e);
+            LogUtil.infoPrintln("포털 연결 예열 완료: 노드 " + baseUrls.size() + "개, 노드당 연결 " + connections + "개 요청, "
+                + "응답 " + total + "건 (" + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) + "ms)");
+            return total;
+        });
+    }
+    
+    /**
+     * 노드의 상태 검사 경로로 GET 요청을 보냅니다.
+     * 
+     * @return 응답 상태 코드, 연결 실패/타임아웃이면 0
+     */
+    private CompletableFuture<Integer> requestHealthCheckPath(String baseUrl) {
+        CompletableFuture<Integer> status = new CompletableFuture<>();
+        asyncHttpClient.execute(
+            SimpleRequestProducer.create(SimpleRequestBuilder.get(baseUrl + httpSettings.getHealthCheckPath()).build()),
+            new BoundedResponseConsumer(1024),
+            new FutureCallback<BoundedResponseConsumer.Result>() {
+                @Override
+                public void completed(BoundedResponseConsumer.Result response) {
+                    status.complete(response.getCode());
+                }
+                
+                @Override
+                public void failed(Exception e) {
+                    status.complete(0);
+                }
+                
+                @Override
+                public void cancelled() {
+                    status.complete(0);
+                }
+            });
+        return status;
+    }
+    
+    /**
+     * 포털 노드별 상태를 반환합니다. (처리 중 요청 수, 제외 여부, 가중치 등)
+     */
+    public Map<String, Object> getNodeStats() {
+        return nodeBalancer.getStats();
+    }
+    
+    /**
+     * 포털 호출 장애 대응 통계를 반환합니다. (재시도 / 헤지 횟수, 재시도 예산, 엔드포인트별 회로 상태)
+     */
+    public Map<String, Object> getCallPolicyStats() {
+        return callPolicy.getStats();
+    }
+    
+    /**
+     * 노드 상태 검사와 비동기 응답 후처리 Executor를 종료합니다.
+     * (HTTP 클라이언트는 생성한 쪽에서 닫음, HTTP/SSE 모드는 빈 종료 시 호출)
+     */
+    @PreDestroy
+    public void close() {
+        nodeBalancer.stopHealthChecks();
+        callbackExecutor.shutdown();
+        try {
+            callbackExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
     
+    /**
+     * 조건부 GET 저장소 통계를 반환합니다. (304 응답 수, 보관 크기 등)
+     */
+    public Map<String, Object> getConditionalGetStats() {
+        return conditionalGetStore.getStats();
+    }
+    
+    private static boolean hasRequestBody(HttpMethod method) {
+        return method == HttpMethod.POST || method == HttpMethod.PUT;
+    }
+    
+    /**
+     * 응답 본문을 결과 객체로 변환합니다.
+     * 
+     * @return JSON이면 PortalJsonBody (passthrough 비활성화 시 Map), 그 외 String, 본문이 없으면 null
+     *         (최대 크기를 넘어 잘린 응답은 JSON이라도 앞부분과 잘림 표시를 붙인 String)
+     */
+    private Object toResult(BoundedResponseBody responseBody, MediaType contentTypeHeader) {
+        if (responseBody.isEmpty()) {
+            return null;
+        }
+        
+        // Content-Type 헤더로 응답 타입 판단
+        String contentType = contentTypeHeader != null ? contentTypeHeader.toString() : "";
+        LogUtil.debugPrintf("[DEBUG] 응답 Content-Type: {}", contentType);
+        
+        if (responseBody.isTruncated()) {
+            // 잘린 JSON은 올바른 문서가 아니므로 파싱하지 않고 앞부분만 텍스트로 전달
+            LogUtil.errPrintln("포털 응답이 최대 크기(" + responseBody.getMaxBytes() + " bytes)를 넘어 잘렸습니다. (Content-Type: " + contentType + ")");
+            return responseBody.toString(charsetOf(contentTypeHeader))
+                + "\n...[truncated: 포털 응답이 최대 크기(" + responseBody.getMaxBytes() + " bytes)를 넘어 이후 내용이 생략되었습니다]";
+        }
+        
+        if (contentType.contains("application/json")) {
+            // JSON 응답인 경우 (")]}'" 접두사는 offset으로 제외)
+            try {
+                PortalJsonBody jsonBody = toUtf8Json(responseBody, contentTypeHeader);
+                if (jsonBody == null || jsonPassthrough) {
+                    return jsonBody;
+                }
+                // passthrough 비활성화 시 Map으로 파싱
+                try (JsonParser parser = jsonBody.createParser(objectMapper.getFactory())) {
+                    return objectMapper.readValue(parser, Map.class);
+                }
+            } catch (Exception e) {
+                throw new RuntimeException("포털 API 응답 파싱 실패: " + e.getMessage(), e);
+            }
+        }
+        
+        // HTML 등 기타 타입은 String으로 반환
+        String textBody = responseBody.toString(charsetOf(contentTypeHeader));
+        return textBody.trim().isEmpty() ? null : textBody;
+    }
+    
+    /**
+     * JSON 본문을 만듭니다. (UTF-8이 아닌 charset이 지정된 경우에만 UTF-8 바이트로 변환)
+     */
+    private static PortalJsonBody toUtf8Json(BoundedResponseBody body, MediaType contentType) throws IOException {
+        Charset charset = contentType != null ? contentType.getCharset() : null;
+        if (charset == null || StandardCharsets.UTF_8.equals(charset)) {
+            return PortalJsonBody.of(body.bytes(), body.length());
+        }
+        return PortalJsonBody.of(body.toString(charset).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 텍스트 응답의 charset (지정되지 않으면 UTF-8)
+     */
+    private static Charset charsetOf(MediaType contentType) {
+        Charset charset = contentType != null ? contentType.getCharset() : null;
+        return charset != null ? charset : StandardCharsets.UTF_8;
+    }
+    
     /**
      * 직원 정보 조회 (예시)
      */
@@ -0,0 +1,190 @@
+package com.example.mcpserver.portal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * 비동기 응답의 gzip/deflate 본문을 수신하는 대로 압축 해제합니다.
+ *
+ * HttpClient 5의 비동기 클라이언트는 Content-Encoding을 자동으로 풀지 않으므로
+ * BoundedResponseConsumer가 받은 조각을 그대로 Inflater에 넣고, 풀린 데이터만 BoundedResponseBody에 보관합니다.
+ * 압축된 본문 전체를 모으지 않으며, 풀린 데이터가 최대 크기를 넘으면 더 풀지 않습니다.
+ * (압축 폭탄 같은 응답도 maxBytes 이상 메모리를 쓰지 않음)
+ */
+class ResponseDecompressor {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int FHCRC = 0x02;
+    private static final int FEXTRA = 0x04;
+    private static final int FNAME = 0x08;
+    private static final int FCOMMENT = 0x10;
+    private static final int MAX_GZIP_HEADER = 64 * 1024;
+
+    private final boolean gzip;
+    private final byte[] output = new byte[8 * 1024];
+    private Inflater inflater;
+    // 형식 판단 전까지 받은 데이터 (gzip 헤더는 조각 경계에 걸칠 수 있음)
+    private byte[] header = new byte[0];
+
+    private ResponseDecompressor(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    /**
+     * Content-Encoding에 맞는 압축 해제기를 만듭니다.
+     *
+     * @return gzip/deflate가 아니면 null (그대로 보관)
+     */
+    static ResponseDecompressor forEncoding(String contentEncoding) {
+        if (contentEncoding == null) {
+            return null;
+        }
+        switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip":
+            case "x-gzip":
+                return new ResponseDecompressor(true);
+            case "deflate":
+                return new ResponseDecompressor(false);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 받은 조각을 압축 해제하여 본문에 추가합니다. 조각은 모두 소비됩니다.
+     */
+    void decompress(ByteBuffer src, BoundedResponseBody body) throws IOException {
+        if (inflater == null) {
+            byte[] data = startInflater(src);
+            if (data != null) {
+                inflater.setInput(data);
+                inflate(body);
+            }
+            return;
+        }
+        // 최대 크기 초과 또는 gzip trailer 이후의 데이터는 버림
+        if (!body.isTruncated() && !inflater.finished()) {
+            inflater.setInput(src);
+            inflate(body);
+        }
+        src.position(src.limit());
+    }
+
+    private void inflate(BoundedResponseBody body) throws IOException {
+        try {
+            // 입력을 다 넣었어도 출력 버퍼가 가득 찼던 경우 Inflater 안에 풀린 데이터가 남아 있을 수 있으므로
+            // 더 나오지 않을 때(0)까지 반복
+            while (!inflater.finished() && !body.isTruncated()) {
+                int n = inflater.inflate(output);
+                if (n == 0) {
+                    if (inflater.needsDictionary()) {
+                        throw new IOException("압축 해제 실패: 사전(dictionary)이 필요한 deflate 스트림");
+                    }
+                    break;
+                }
+                body.append(output, 0, n);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("압축 해제 실패: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 첫 조각(들)로 스트림 형식을 판단하여 Inflater를 만듭니다.
+     *
+     * @return 헤더 뒤의 압축 데이터, 헤더를 더 받아야 하면 null
+     */
+    private byte[] startInflater(ByteBuffer src) throws IOException {
+        byte[] received = new byte[header.length + src.remaining()];
+        System.arraycopy(header, 0, received, 0, header.length);
+        src.get(received, header.length, src.remaining());
+        header = received;
+
+        int dataStart;
+        if (gzip) {
+            dataStart = gzipHeaderLength(received);
+            if (dataStart < 0) {
+                if (received.length > MAX_GZIP_HEADER) {
+                    throw new IOException("압축 해제 실패: gzip 헤더가 너무 깁니다");
+                }
+                return null;
+            }
+            inflater = new Inflater(true);
+        } else {
+            if (received.length < 2) {
+                return null;
+            }
+            // "deflate"는 zlib 형식이 표준이지만 raw deflate를 보내는 서버도 있음
+            inflater = new Inflater(!isZlibHeader(received[0], received[1]));
+            dataStart = 0;
+        }
+        header = null;
+        return Arrays.copyOfRange(received, dataStart, received.length);
+    }
+
+    /**
+     * gzip 헤더 길이 (RFC 1952), 헤더를 다 받지 못했으면 -1
+     */
+    private static int gzipHeaderLength(byte[] b) throws IOException {
+        if (b.length < 10) {
+            return -1;
+        }
+        if (((b[0] & 0xff) | ((b[1] & 0xff) << 8)) != GZIP_MAGIC || b[2] != 8) {
+            throw new IOException("압축 해제 실패: gzip 형식이 아닙니다");
+        }
+        int flags = b[3] & 0xff;
+        int pos = 10;
+        if ((flags & FEXTRA) != 0) {
+            if (b.length < pos + 2) {
+                return -1;
+            }
+            pos += 2 + ((b[pos] & 0xff) | ((b[pos + 1] & 0xff) << 8));
+        }
+        if ((flags & FNAME) != 0) {
+            pos = skipZeroTerminated(b, pos);
+        }
+        if ((flags & FCOMMENT) != 0 && pos >= 0) {
+            pos = skipZeroTerminated(b, pos);
+        }
+        if ((flags & FHCRC) != 0 && pos >= 0) {
+            pos += 2;
+        }
+        return pos >= 0 && pos <= b.length ? pos : -1;
+    }
+
+    private static int skipZeroTerminated(byte[] b, int pos) {
+        while (pos < b.length) {
+            if (b[pos++] == 0) {
+                return pos;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isZlibHeader(byte cmf, byte flg) {
+        return (cmf & 0x0f) == 8 && (((cmf & 0xff) << 8) | (flg & 0xff)) % 31 == 0;
+    }
+
+    /**
+     * 응답이 끝났을 때 압축 스트림이 완전한지 확인합니다.
+     */
+    void finish(BoundedResponseBody body) throws IOException {
+        if (body.isTruncated() || (inflater == null && header.length == 0)) {
+            // 최대 크기 초과로 중단했거나 본문이 없는 응답
+            return;
+        }
+        if (inflater == null || !inflater.finished()) {
+            throw new IOException("압축 해제 실패: 압축된 응답이 완전하지 않습니다");
+        }
+    }
+
+    void close() {
+        if (inflater != null) {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.mcpserver.portal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 재시도 예산
+ *
+ * 포털이 전체적으로 느려지거나 실패할 때 재시도가 부하를 몇 배로 늘리지 않도록
+ * 추가 요청(재시도, 헤지)을 원래 요청 수의 일정 비율까지만 허용합니다.
+ * - 원래 요청마다 percent/100 만큼 적립하고, 추가 요청마다 1씩 사용합니다.
+ * - 요청이 적을 때도 재시도할 수 있도록 초당 minPerSecond만큼 적립합니다.
+ * - 적립액은 10초 분량(최소 10)을 넘지 않습니다.
+ */
+class RetryBudget {
+
+    private final double ratio;
+    private final double minPerSecond;
+    private final double maxBalance;
+    private double balance;
+    private long refilledAtNanos;
+    private long withdrawn;
+    private long exhausted;
+
+    RetryBudget(int percent, int minPerSecond) {
+        this.ratio = percent / 100.0;
+        this.minPerSecond = minPerSecond;
+        this.maxBalance = Math.max(10.0, (minPerSecond + ratio) * 10);
+        this.balance = maxBalance;
+        this.refilledAtNanos = System.nanoTime();
+    }
+
+    /**
+     * 원래 요청 하나를 기록합니다.
+     */
+    synchronized void onRequest() {
+        refill();
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    /**
+     * 추가 요청(재시도, 헤지) 하나를 보낼 수 있으면 예산에서 차감합니다.
+     *
+     * @return 예산이 남아 있으면 true
+     */
+    synchronized boolean tryWithdraw() {
+        refill();
+        if (balance < 1.0) {
+            exhausted++;
+            return false;
+        }
+        balance -= 1.0;
+        withdrawn++;
+        return true;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double seconds = (now - refilledAtNanos) / 1_000_000_000.0;
+        refilledAtNanos = now;
+        balance = Math.min(maxBalance, balance + seconds * minPerSecond);
+    }
+
+    synchronized Map<String, Object> getStats() {
+        refill();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("balance", Math.floor(balance * 100) / 100);
+        stats.put("maxBalance", maxBalance);
+        stats.put("withdrawn", withdrawn);
+        stats.put("exhausted", exhausted);
+        return stats;
+    }
+}
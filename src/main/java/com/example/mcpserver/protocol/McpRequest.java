@@ -1,15 +1,20 @@
 package com.example.mcpserver.protocol;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 /**
  * MCP (Model Context Protocol) 요청 메시지 모델
  * 
  * MCP는 JSON-RPC 2.0 기반의 프로토콜로, 클라이언트와 서버 간의 통신을 정의합니다.
  * 이 클래스는 클라이언트가 서버에 보내는 요청 메시지를 나타냅니다.
+ * 
+ * 역직렬화는 McpRequestDeserializer가 담당합니다. (tools/call params → ToolCallRequest)
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonDeserialize(using = McpRequestDeserializer.class)
 public class McpRequest {
     
     /**
@@ -35,9 +40,17 @@ public class McpRequest {
     /**
      * 메서드에 전달할 파라미터
      * 메서드에 따라 다른 구조를 가질 수 있습니다.
+     * "tools/call"인 경우 ToolCallRequest, 그 외에는 Map 등 일반 객체입니다.
      */
     @JsonProperty("params")
     private Object params;
+    
+    /**
+     * params 바인딩 오류 메시지 (예: tools/call의 arguments가 객체가 아님)
+     * 역직렬화할 때만 설정되며, 있으면 같은 id로 Invalid params 오류를 응답합니다.
+     */
+    @JsonIgnore
+    private String paramsError;
 
     // 기본 생성자
     public McpRequest() {
@@ -82,5 +95,13 @@ public class McpRequest {
     public void setParams(Object params) {
         this.params = params;
     }
+
+    public String getParamsError() {
+        return paramsError;
+    }
+
+    public void setParamsError(String paramsError) {
+        this.paramsError = paramsError;
+    }
 }
 
@@ -0,0 +1,98 @@
+package com.example.mcpserver.protocol;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * McpRequest 스트리밍 역직렬화기
+ *
+ * JsonParser 토큰을 한 번만 읽어 McpRequest를 구성합니다. (중간 JsonNode 트리 없음)
+ * "tools/call" 요청의 params는 Map을 거치지 않고 바로 ToolCallRequest로 바인딩합니다.
+ *
+ * 참고: JSON-RPC 2.0 id는 문자열 또는 숫자일 수 있으며, 기존과 동일하게 문자열로 보관합니다.
+ * params가 method보다 먼저 나오는 경우에는 일반 Object(Map)로 바인딩됩니다.
+ * params를 바인딩할 수 없으면(필드 타입 오류 등) 요청은 그대로 만들고 McpRequest.paramsError에 기록합니다.
+ */
+public class McpRequestDeserializer extends StdDeserializer<McpRequest> {
+
+    private static final long serialVersionUID = 1L;
+
+    public McpRequestDeserializer() {
+        super(McpRequest.class);
+    }
+
+    @Override
+    public McpRequest deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        String fieldName;
+        if (p.isExpectedStartObjectToken()) {
+            fieldName = p.nextFieldName();
+        } else if (p.hasToken(JsonToken.FIELD_NAME)) {
+            fieldName = p.currentName();
+        } else {
+            return (McpRequest) ctxt.handleUnexpectedToken(McpRequest.class, p);
+        }
+
+        McpRequest request = new McpRequest();
+        for (; fieldName != null; fieldName = p.nextFieldName()) {
+            JsonToken token = p.nextToken();
+            switch (fieldName) {
+                case "jsonrpc":
+                    request.setJsonrpc(p.getValueAsString());
+                    break;
+                case "id":
+                    if (token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+                        request.setId(p.getValueAsString());
+                    } else {
+                        p.skipChildren();
+                    }
+                    break;
+                case "method":
+                    request.setMethod(p.getValueAsString());
+                    break;
+                case "params":
+                    request.setParams(readParams(p, ctxt, token, request));
+                    break;
+                default:
+                    // 알 수 없는 필드는 건너뜀
+                    p.skipChildren();
+                    break;
+            }
+        }
+        return request;
+    }
+
+    /**
+     * params를 method에 맞는 타입으로 바인딩합니다.
+     * 바인딩에 실패하면 params의 나머지를 건너뛰고 오류를 기록하여, 뒤에 오는 필드(id 등)도 계속 읽습니다.
+     */
+    private Object readParams(JsonParser p, DeserializationContext ctxt, JsonToken token, McpRequest request) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        // params 값을 감싼 요청 객체의 컨텍스트 (params가 끝나면 여기로 돌아옴)
+        JsonStreamContext requestContext = token.isStructStart()
+            ? p.getParsingContext().getParent()
+            : p.getParsingContext();
+        try {
+            if ("tools/call".equals(request.getMethod()) && token == JsonToken.START_OBJECT) {
+                return ctxt.readValue(p, ToolCallRequest.class);
+            }
+            return ctxt.readValue(p, Object.class);
+        } catch (JsonMappingException e) {
+            while (p.getParsingContext() != requestContext) {
+                if (p.nextToken() == null) {
+                    throw new JsonParseException(p, "Unexpected end of params");
+                }
+            }
+            request.setParamsError(e.getOriginalMessage());
+            return null;
+        }
+    }
+}
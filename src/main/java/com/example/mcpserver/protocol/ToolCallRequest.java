@@ -1,5 +1,6 @@
 package com.example.mcpserver.protocol;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.Map;
@@ -8,8 +9,10 @@ import java.util.Map;
  * 도구 호출 요청 파라미터 모델
  * 
  * 클라이언트가 특정 도구를 호출할 때 전달하는 파라미터입니다.
+ * (_meta 등 추가 필드는 무시합니다.)
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class ToolCallRequest {
     
     /**
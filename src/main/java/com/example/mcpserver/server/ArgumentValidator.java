@@ -0,0 +1,352 @@
+package com.example.mcpserver.server;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 컴파일된 도구 인자 검증기 (JSON Schema 부분 집합)
+ *
+ * 도구 등록 시 inputSchema를 한 번만 분석하여 검증 노드 트리로 만들어 두고,
+ * tools/call마다 스키마 맵을 다시 읽지 않고 인자만 검사합니다.
+ * 잘못된 인자는 포털을 호출하기 전에 오류 위치(예: "$.input_data.menu_name")와 함께 거부합니다.
+ *
+ * 지원 키워드: type, properties, required, additionalProperties, items, enum,
+ * minLength, maxLength, pattern, minimum, maximum
+ * (그 외 키워드는 무시합니다.)
+ */
+public class ArgumentValidator {
+
+    private enum JsonType { STRING, NUMBER, INTEGER, BOOLEAN, OBJECT, ARRAY, NULL }
+
+    private final Node root;
+
+    private ArgumentValidator(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * inputSchema를 컴파일합니다.
+     *
+     * @param schema 도구의 inputSchema (null이면 모든 인자 허용)
+     * @return 컴파일된 검증기
+     * @throws IllegalArgumentException 지원하지 않는 형식의 스키마인 경우
+     */
+    public static ArgumentValidator compile(Map<String, Object> schema) {
+        return new ArgumentValidator(schema != null ? compileNode(schema, "$") : null);
+    }
+
+    /**
+     * 인자를 검증합니다.
+     *
+     * @param arguments tools/call 인자 (null이면 빈 객체로 간주)
+     * @return 오류 메시지 (예: "$.employeeId: required property is missing"), 통과하면 null
+     */
+    public String validate(Map<String, Object> arguments) {
+        if (root == null) {
+            return null;
+        }
+        Violation violation = root.check(arguments != null ? arguments : Map.of());
+        return violation != null ? violation.toString() : null;
+    }
+
+    // ===== 컴파일 =====
+
+    private static Node compileNode(Object schemaObject, String path) {
+        if (!(schemaObject instanceof Map)) {
+            throw new IllegalArgumentException("스키마는 객체여야 합니다: " + path);
+        }
+        Map<?, ?> schema = (Map<?, ?>) schemaObject;
+        Node node = new Node();
+
+        Object type = schema.get("type");
+        if (type != null) {
+            node.types = EnumSet.noneOf(JsonType.class);
+            if (type instanceof Collection) {
+                for (Object item : (Collection<?>) type) {
+                    node.types.add(parseType(item, path));
+                }
+            } else {
+                node.types.add(parseType(type, path));
+            }
+        }
+
+        Object properties = schema.get("properties");
+        if (properties instanceof Map) {
+            Map<?, ?> propertyMap = (Map<?, ?>) properties;
+            node.properties = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : propertyMap.entrySet()) {
+                String name = String.valueOf(entry.getKey());
+                node.properties.put(name, compileNode(entry.getValue(), path + "." + name));
+            }
+        }
+
+        Object required = schema.get("required");
+        if (required instanceof Collection) {
+            List<String> names = new ArrayList<>();
+            for (Object name : (Collection<?>) required) {
+                names.add(String.valueOf(name));
+            }
+            node.required = names.toArray(new String[0]);
+        }
+
+        Object additional = schema.get("additionalProperties");
+        if (Boolean.FALSE.equals(additional)) {
+            node.additionalAllowed = false;
+        } else if (additional instanceof Map) {
+            node.additional = compileNode(additional, path + ".*");
+        }
+
+        Object items = schema.get("items");
+        if (items != null) {
+            node.items = compileNode(items, path + "[]");
+        }
+
+        Object enumValues = schema.get("enum");
+        if (enumValues instanceof Collection) {
+            node.enumValues = new ArrayList<>((Collection<?>) enumValues);
+        }
+
+        node.minLength = intValue(schema.get("minLength"));
+        node.maxLength = intValue(schema.get("maxLength"));
+        node.minimum = decimalValue(schema.get("minimum"));
+        node.maximum = decimalValue(schema.get("maximum"));
+        Object pattern = schema.get("pattern");
+        if (pattern != null) {
+            node.pattern = Pattern.compile(pattern.toString());
+        }
+        return node;
+    }
+
+    private static JsonType parseType(Object type, String path) {
+        try {
+            return JsonType.valueOf(String.valueOf(type).toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("알 수 없는 type: " + type + " (" + path + ")");
+        }
+    }
+
+    private static Integer intValue(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : null;
+    }
+
+    private static BigDecimal decimalValue(Object value) {
+        return value instanceof Number ? toDecimal((Number) value) : null;
+    }
+
+    private static BigDecimal toDecimal(Number value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(value.doubleValue());
+        }
+        return BigDecimal.valueOf(value.longValue());
+    }
+
+    // ===== 검증 =====
+
+    /**
+     * 컴파일된 스키마 노드
+     */
+    private static class Node {
+        private Set<JsonType> types;
+        private Map<String, Node> properties;
+        private String[] required;
+        private boolean additionalAllowed = true;
+        private Node additional;
+        private Node items;
+        private List<Object> enumValues;
+        private Integer minLength;
+        private Integer maxLength;
+        private BigDecimal minimum;
+        private BigDecimal maximum;
+        private Pattern pattern;
+
+        Violation check(Object value) {
+            JsonType actual = typeOf(value);
+            if (types != null && !matchesType(actual, value)) {
+                return new Violation("expected " + describeTypes() + " but got " + actual.name().toLowerCase());
+            }
+            if (enumValues != null && !enumValues.contains(value)) {
+                return new Violation("must be one of " + enumValues);
+            }
+            switch (actual) {
+                case OBJECT:
+                    return checkObject((Map<?, ?>) value);
+                case ARRAY:
+                    return checkArray((List<?>) value);
+                case STRING:
+                    return value instanceof String ? checkString((String) value) : null;
+                case NUMBER:
+                case INTEGER:
+                    return checkNumber((Number) value);
+                default:
+                    return null;
+            }
+        }
+
+        private Violation checkObject(Map<?, ?> value) {
+            if (required != null) {
+                for (String name : required) {
+                    if (value.get(name) == null) {
+                        return new Violation("required property is missing").at("." + name);
+                    }
+                }
+            }
+            if (properties == null && additionalAllowed && additional == null) {
+                return null;
+            }
+            for (Map.Entry<?, ?> entry : value.entrySet()) {
+                String name = String.valueOf(entry.getKey());
+                Node child = properties != null ? properties.get(name) : null;
+                if (child == null) {
+                    if (!additionalAllowed) {
+                        return new Violation("unknown property").at("." + name);
+                    }
+                    child = additional;
+                }
+                if (child != null) {
+                    Violation violation = child.check(entry.getValue());
+                    if (violation != null) {
+                        return violation.at("." + name);
+                    }
+                }
+            }
+            return null;
+        }
+
+        private Violation checkArray(List<?> value) {
+            if (items == null) {
+                return null;
+            }
+            for (int i = 0; i < value.size(); i++) {
+                Violation violation = items.check(value.get(i));
+                if (violation != null) {
+                    return violation.at("[" + i + "]");
+                }
+            }
+            return null;
+        }
+
+        private Violation checkString(String value) {
+            if (minLength != null && value.length() < minLength) {
+                return new Violation("length must be >= " + minLength);
+            }
+            if (maxLength != null && value.length() > maxLength) {
+                return new Violation("length must be <= " + maxLength);
+            }
+            if (pattern != null && !pattern.matcher(value).find()) {
+                return new Violation("must match pattern " + pattern.pattern());
+            }
+            return null;
+        }
+
+        private Violation checkNumber(Number value) {
+            if (minimum == null && maximum == null) {
+                return null;
+            }
+            BigDecimal decimal = toDecimal(value);
+            if (minimum != null && decimal.compareTo(minimum) < 0) {
+                return new Violation("must be >= " + minimum);
+            }
+            if (maximum != null && decimal.compareTo(maximum) > 0) {
+                return new Violation("must be <= " + maximum);
+            }
+            return null;
+        }
+
+        private boolean matchesType(JsonType actual, Object value) {
+            if (types.contains(actual)) {
+                return true;
+            }
+            // integer는 number이기도 하고, 1.0 같은 정수 값의 number는 integer로 인정
+            if (actual == JsonType.INTEGER) {
+                return types.contains(JsonType.NUMBER);
+            }
+            return actual == JsonType.NUMBER && types.contains(JsonType.INTEGER) && isIntegral((Number) value);
+        }
+
+        private String describeTypes() {
+            StringBuilder description = new StringBuilder();
+            for (JsonType type : types) {
+                if (description.length() > 0) {
+                    description.append(" or ");
+                }
+                description.append(type.name().toLowerCase());
+            }
+            return description.toString();
+        }
+    }
+
+    private static JsonType typeOf(Object value) {
+        if (value == null) {
+            return JsonType.NULL;
+        }
+        if (value instanceof String) {
+            return JsonType.STRING;
+        }
+        if (value instanceof Boolean) {
+            return JsonType.BOOLEAN;
+        }
+        if (value instanceof Map) {
+            return JsonType.OBJECT;
+        }
+        if (value instanceof List) {
+            return JsonType.ARRAY;
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Short
+            || value instanceof Byte || value instanceof BigInteger) {
+            return JsonType.INTEGER;
+        }
+        if (value instanceof Number) {
+            return JsonType.NUMBER;
+        }
+        // Jackson으로 역직렬화된 인자에는 나오지 않는 타입 - 문자열로 취급
+        return JsonType.STRING;
+    }
+
+    private static boolean isIntegral(Number value) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).stripTrailingZeros().scale() <= 0;
+        }
+        double d = value.doubleValue();
+        return !Double.isInfinite(d) && d == Math.rint(d);
+    }
+
+    /**
+     * 검증 실패 정보 - 경로는 실패한 경우에만 안쪽에서 바깥쪽으로 붙여 나갑니다.
+     */
+    private static class Violation {
+        private final String message;
+        private final List<String> segments = new ArrayList<>(4);
+
+        Violation(String message) {
+            this.message = message;
+        }
+
+        Violation at(String segment) {
+            segments.add(segment);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder path = new StringBuilder("$");
+            for (int i = segments.size() - 1; i >= 0; i--) {
+                path.append(segments.get(i));
+            }
+            return path.append(": ").append(message).toString();
+        }
+    }
+}
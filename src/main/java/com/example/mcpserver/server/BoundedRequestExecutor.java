@@ -0,0 +1,218 @@
+package com.example.mcpserver.server;
+
+import com.example.mcpserver.util.ExecutorUtil;
+import com.example.mcpserver.util.LogUtil;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 크기가 제한된 MCP 요청 처리기 (HTTP/SSE 모드)
+ *
+ * POST 요청은 이 처리기에 작업을 넣고 바로 202 Accepted로 응답하며, 결과는 SSE로 전송됩니다.
+ * - 동시에 처리하는 요청은 maxInFlight개까지이며, 작업이 반환한 Future가 끝날 때(응답 전송까지) 자리를 반환합니다.
+ * - 나머지는 maxPending개까지 대기열에 넣고, 대기열도 가득 차면 submit이 false를 반환합니다. (호출 측에서 503 응답)
+ * - batch 요청은 submitAll로 항목마다 자리 하나씩 차지하며, 모든 항목을 넣을 자리가 없으면 통째로 거부합니다.
+ * 작업은 Java 21 이상에서 가상 스레드로 실행하며, 대기 중인 작업이 스레드를 점유하지 않습니다.
+ * 접수한 작업을 시작하지 못하면(종료 중 거부, 시작 중 예외) Task.abort로 알려 호출 측이 오류 응답을 보낼 수 있게 합니다.
+ */
+public class BoundedRequestExecutor {
+
+    /**
+     * 처리기에 넣는 작업
+     */
+    @FunctionalInterface
+    public interface Task {
+        /**
+         * 요청 처리를 시작합니다.
+         *
+         * @return 응답 전송까지 끝나면 완료되는 Future
+         */
+        CompletableFuture<?> start();
+
+        /**
+         * 작업을 시작하지 못했을 때 호출됩니다. (기본: 아무것도 하지 않음)
+         *
+         * @param cause 종료 중 거부(RejectedExecutionException) 또는 start에서 발생한 예외
+         */
+        default void abort(Throwable cause) {
+        }
+
+        /**
+         * 시작하지 못했을 때 처리가 필요한 작업을 만듭니다.
+         */
+        static Task of(Supplier<CompletableFuture<?>> start, Consumer<Throwable> abort) {
+            return new Task() {
+                @Override
+                public CompletableFuture<?> start() {
+                    return start.get();
+                }
+
+                @Override
+                public void abort(Throwable cause) {
+                    abort.accept(cause);
+                }
+            };
+        }
+    }
+
+    private final int maxInFlight;
+    private final int maxPending;
+    private final Semaphore inFlightPermits;
+    private final Queue<Task> pending = new ConcurrentLinkedQueue<>();
+    // 접수했지만 아직 끝나지 않은 작업 수 (대기 + 처리 중)
+    private final AtomicInteger accepted = new AtomicInteger();
+    private final ExecutorService executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param maxInFlight 동시에 처리할 최대 요청 수
+     * @param maxPending 처리 대기열 크기
+     */
+    public BoundedRequestExecutor(int maxInFlight, int maxPending) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxPending = Math.max(0, maxPending);
+        this.inFlightPermits = new Semaphore(this.maxInFlight);
+        this.executor = ExecutorUtil.newRequestExecutor("mcp-request");
+    }
+
+    /**
+     * 작업을 접수합니다.
+     *
+     * @param task 요청 처리를 시작하고, 응답 전송까지 끝나면 완료되는 Future를 반환하는 작업
+     * @return 접수되면 true, 처리 중 + 대기 요청이 가득 찼으면 false
+     */
+    public boolean submit(Task task) {
+        if (accepted.incrementAndGet() > maxInFlight + maxPending) {
+            accepted.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        pending.add(task);
+        drain();
+        return true;
+    }
+
+    /**
+     * 작업 여러 개를 한꺼번에 접수합니다. (batch 요청의 항목마다 자리 하나)
+     * 모든 작업을 넣을 자리가 없으면 하나도 접수하지 않고, 작업 목록도 만들지 않습니다.
+     *
+     * @param count 작업 수
+     * @param tasks 자리를 확보한 뒤 호출되어 작업 count개를 만드는 함수
+     * @return 접수되면 true, 처리 중 + 대기 요청에 count개를 더할 자리가 없으면 false
+     */
+    public boolean submitAll(int count, Supplier<List<Task>> tasks) {
+        int current;
+        do {
+            current = accepted.get();
+            if (current + count > maxInFlight + maxPending) {
+                rejected.increment();
+                return false;
+            }
+        } while (!accepted.compareAndSet(current, current + count));
+        
+        List<Task> created;
+        try {
+            created = tasks.get();
+            if (created.size() != count) {
+                throw new IllegalArgumentException("작업 수가 다릅니다: " + created.size() + " != " + count);
+            }
+        } catch (RuntimeException e) {
+            // 확보한 자리 반환
+            accepted.addAndGet(-count);
+            throw e;
+        }
+        pending.addAll(created);
+        drain();
+        return true;
+    }
+
+    /**
+     * 자리가 있는 동안 대기열의 작업을 시작합니다.
+     * 작업을 넣을 때와 자리를 반환할 때 모두 호출하므로 대기 중인 작업이 남지 않습니다.
+     */
+    private void drain() {
+        while (!pending.isEmpty() && inFlightPermits.tryAcquire()) {
+            Task task = pending.poll();
+            if (task == null) {
+                inFlightPermits.release();
+                return;
+            }
+            try {
+                executor.execute(() -> run(task));
+            } catch (RejectedExecutionException e) {
+                // 종료 중: 호출 측이 응답을 마무리하도록 알림
+                abort(task, e);
+                finish();
+            }
+        }
+    }
+
+    private void run(Task task) {
+        CompletableFuture<?> completion;
+        try {
+            completion = task.start();
+        } catch (RuntimeException e) {
+            LogUtil.errPrintln("요청 처리 시작 실패: " + e.getMessage());
+            abort(task, e);
+            finish();
+            return;
+        }
+        completion.whenComplete((ignored, e) -> finish());
+    }
+
+    private static void abort(Task task, Throwable cause) {
+        try {
+            task.abort(cause);
+        } catch (RuntimeException e) {
+            LogUtil.errPrintln("요청 처리 중단 처리 실패: " + e.getMessage());
+        }
+    }
+
+    private void finish() {
+        completed.increment();
+        accepted.decrementAndGet();
+        inFlightPermits.release();
+        drain();
+    }
+
+    /**
+     * 처리 현황 (처리 중, 대기, 완료, 거부 수)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", maxInFlight - inFlightPermits.availablePermits());
+        stats.put("pending", pending.size());
+        stats.put("maxInFlight", maxInFlight);
+        stats.put("maxPending", maxPending);
+        stats.put("completed", completed.sum());
+        stats.put("rejected", rejected.sum());
+        return stats;
+    }
+
+    /**
+     * 새 작업을 받지 않고, 처리 중인 작업이 끝날 때까지 잠시 기다립니다.
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.mcpserver.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * 컴파일된 포털 엔드포인트 템플릿
+ *
+ * "/employees/{employeeId}" 같은 템플릿을 도구 등록 시 한 번만 분석하여
+ * 고정 문자열 조각과 경로 변수 조각으로 나누어 둡니다.
+ * 호출 시에는 StringBuilder 하나로 한 번에 확장하며, 경로 변수 값은 path segment 규칙으로 인코딩합니다.
+ *
+ * 예: "/employees/{employeeId}" + {employeeId: "a/b"} → "/employees/a%2Fb"
+ */
+public class EndpointTemplate {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final String template;
+    // literals.length == variables.length + 1 (literal, var, literal, var, ..., literal)
+    private final String[] literals;
+    private final String[] variables;
+    private final Set<String> pathVariables;
+    private final int literalLength;
+
+    private EndpointTemplate(String template, List<String> literals, List<String> variables) {
+        this.template = template;
+        this.literals = literals.toArray(new String[0]);
+        this.variables = variables.toArray(new String[0]);
+        this.pathVariables = Collections.unmodifiableSet(new LinkedHashSet<>(variables));
+        int length = 0;
+        for (String literal : this.literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * 템플릿을 컴파일합니다.
+     *
+     * @param template 엔드포인트 템플릿 (예: "/employees/{employeeId}")
+     * @return 컴파일된 템플릿
+     * @throws IllegalArgumentException 중괄호가 맞지 않거나 변수 이름이 비어 있는 경우
+     */
+    public static EndpointTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int literalStart = 0;
+        int open = template.indexOf('{');
+        while (open >= 0) {
+            int close = template.indexOf('}', open + 1);
+            if (close < 0) {
+                throw new IllegalArgumentException("닫히지 않은 경로 변수: " + template);
+            }
+            String name = template.substring(open + 1, close).trim();
+            if (name.isEmpty() || name.indexOf('{') >= 0) {
+                throw new IllegalArgumentException("잘못된 경로 변수: " + template);
+            }
+            literals.add(template.substring(literalStart, open));
+            variables.add(name);
+            literalStart = close + 1;
+            open = template.indexOf('{', literalStart);
+        }
+        literals.add(template.substring(literalStart));
+        return new EndpointTemplate(template, literals, variables);
+    }
+
+    /**
+     * 경로 변수 이름 목록
+     */
+    public Set<String> getPathVariables() {
+        return pathVariables;
+    }
+
+    public boolean isPathVariable(String name) {
+        return pathVariables.contains(name);
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * 템플릿을 확장합니다.
+     *
+     * @param arguments 도구 인자 (null 가능)
+     * @param queryFilter 쿼리 문자열에 넣을 인자 이름 조건 (null이면 쿼리 문자열 없음).
+     *                    경로 변수와 값이 null인 인자는 항상 제외됩니다.
+     * @return 확장된 엔드포인트 (경로 + 선택적 쿼리 문자열)
+     * @throws IllegalArgumentException 경로 변수 값이 없는 경우
+     */
+    public String expand(Map<String, ?> arguments, Predicate<String> queryFilter) {
+        if (variables.length == 0 && (queryFilter == null || arguments == null || arguments.isEmpty())) {
+            return template;
+        }
+        StringBuilder result = new StringBuilder(literalLength + 16 * variables.length + 16);
+        result.append(literals[0]);
+        for (int i = 0; i < variables.length; i++) {
+            Object value = arguments != null ? arguments.get(variables[i]) : null;
+            if (value == null) {
+                throw new IllegalArgumentException("경로 변수 값이 없습니다: " + variables[i]);
+            }
+            appendEncoded(result, value.toString());
+            result.append(literals[i + 1]);
+        }
+        if (queryFilter != null && arguments != null) {
+            appendQuery(result, arguments, queryFilter);
+        }
+        return result.toString();
+    }
+
+    private void appendQuery(StringBuilder result, Map<String, ?> arguments, Predicate<String> queryFilter) {
+        char separator = template.indexOf('?') >= 0 ? '&' : '?';
+        for (Map.Entry<String, ?> entry : arguments.entrySet()) {
+            String name = entry.getKey();
+            Object value = entry.getValue();
+            if (value == null || isPathVariable(name) || !queryFilter.test(name)) {
+                continue;
+            }
+            if (value instanceof Iterable) {
+                // 목록 값은 같은 이름으로 반복 (예: ids=1&ids=2)
+                for (Object item : (Iterable<?>) value) {
+                    if (item != null) {
+                        separator = appendQueryParam(result, separator, name, item);
+                    }
+                }
+            } else {
+                separator = appendQueryParam(result, separator, name, value);
+            }
+        }
+    }
+
+    private static char appendQueryParam(StringBuilder result, char separator, String name, Object value) {
+        result.append(separator);
+        appendEncoded(result, name);
+        result.append('=');
+        appendEncoded(result, value.toString());
+        return '&';
+    }
+
+    /**
+     * RFC 3986 unreserved 문자 외에는 UTF-8 퍼센트 인코딩하여 추가합니다.
+     * ('/', '?', '&', '=' 등도 인코딩되므로 path segment와 쿼리 값 모두에 안전합니다.)
+     */
+    private static void appendEncoded(StringBuilder result, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (isUnreserved(c)) {
+                result.append(c);
+            } else if (c < 0x80) {
+                appendPercent(result, c);
+            } else {
+                // 비 ASCII 문자는 해당 코드 포인트의 UTF-8 바이트로 인코딩
+                int end = Character.isHighSurrogate(c) && i + 1 < value.length() ? i + 2 : i + 1;
+                for (byte b : value.substring(i, end).getBytes(StandardCharsets.UTF_8)) {
+                    appendPercent(result, b & 0xFF);
+                }
+                i = end - 1;
+            }
+        }
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+            || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    private static void appendPercent(StringBuilder result, int b) {
+        result.append('%').append(HEX[b >> 4]).append(HEX[b & 0x0F]);
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
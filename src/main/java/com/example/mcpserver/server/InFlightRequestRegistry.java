@@ -0,0 +1,103 @@
+package com.example.mcpserver.server;
+
+import com.example.mcpserver.protocol.McpRequest;
+import com.example.mcpserver.util.LogUtil;
+import com.example.mcpserver.util.RequestCancellation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 처리 중인 요청 목록 (JSON-RPC id 기준)
+ *
+ * 세션(stdio 프로세스 하나, SSE 클라이언트 하나)마다 하나씩 사용합니다.
+ * MCP "notifications/cancelled" 메시지를 받으면 해당 id의 요청을 취소하여
+ * 포털 HTTP 요청을 중단하고, 취소된 요청의 응답은 전송하지 않습니다.
+ */
+public class InFlightRequestRegistry {
+
+    public static final String CANCELLED_METHOD = "notifications/cancelled";
+
+    private final Map<String, RequestCancellation> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 요청을 처리 중 목록에 등록합니다.
+     * 요청을 수신한 시점(처리 대기 전)에 호출해야 취소 메시지를 놓치지 않습니다.
+     *
+     * @param request 요청
+     * @return 취소 핸들 (Notification이면 null)
+     */
+    public RequestCancellation register(McpRequest request) {
+        if (request == null || request.getId() == null) {
+            return null;
+        }
+        RequestCancellation cancellation = new RequestCancellation(request.getId());
+        inFlight.put(request.getId(), cancellation);
+        return cancellation;
+    }
+
+    /**
+     * 처리가 끝난 요청을 목록에서 제거합니다.
+     *
+     * @param cancellation register()가 반환한 핸들 (null이면 무시)
+     */
+    public void complete(RequestCancellation cancellation) {
+        if (cancellation != null) {
+            inFlight.remove(cancellation.getRequestId(), cancellation);
+        }
+    }
+
+    /**
+     * 요청이 "notifications/cancelled"이면 대상 요청을 취소합니다.
+     * 처리 중 요청 수 제한과 관계없이 즉시 처리해야 하므로 수신 스레드에서 호출합니다.
+     *
+     * @param request 수신한 요청
+     * @return 취소 알림이었으면 true (응답 없음)
+     */
+    public boolean handleCancelledNotification(McpRequest request) {
+        if (request == null || !CANCELLED_METHOD.equals(request.getMethod())) {
+            return false;
+        }
+        if (request.getParams() instanceof Map) {
+            Map<?, ?> params = (Map<?, ?>) request.getParams();
+            Object requestId = params.get("requestId");
+            Object reason = params.get("reason");
+            if (requestId != null) {
+                cancel(requestId.toString(), reason != null ? reason.toString() : null);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 요청을 취소합니다. 이미 끝났거나 알 수 없는 id이면 무시합니다. (MCP 규격)
+     *
+     * @param requestId 취소할 요청 id
+     * @param reason 취소 사유 (선택적)
+     * @return 취소한 요청이 있으면 true
+     */
+    public boolean cancel(String requestId, String reason) {
+        RequestCancellation cancellation = inFlight.remove(requestId);
+        if (cancellation == null) {
+            return false;
+        }
+        LogUtil.infoPrintln("요청 취소: id=" + requestId + (reason != null ? ", 사유: " + reason : ""));
+        cancellation.cancel(reason);
+        return true;
+    }
+
+    /**
+     * 처리 중인 모든 요청을 취소합니다. (세션 종료 시)
+     *
+     * @param reason 취소 사유
+     */
+    public void cancelAll(String reason) {
+        for (String requestId : inFlight.keySet()) {
+            cancel(requestId, reason);
+        }
+    }
+
+    public int size() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.mcpserver.server;
+
+import com.example.mcpserver.protocol.McpRequest;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JSON-RPC 메시지 파서
+ *
+ * 바이트 배열에서 JSON-RPC 메시지 하나를 파싱합니다.
+ * 최상위가 객체이면 단일 요청, 배열이면 JSON-RPC 2.0 batch 요청입니다.
+ * stdio 모드와 HTTP/SSE 모드에서 공통으로 사용됩니다.
+ *
+ * 요청 객체가 아닌 항목(숫자, 문자열 등)은 null로 표시되며,
+ * McpServerWithPortalWrapper에서 "Invalid Request" 오류로 응답합니다.
+ * JSON 문법은 맞지만 params를 바인딩할 수 없는 요청(tools/call arguments 타입 오류 등)은 같은 id로 "Invalid params",
+ * 그 밖에 요청으로 바인딩할 수 없는 객체는 null로 표시하여 "Invalid Request"로 응답합니다.
+ * (단일 요청, batch 항목 모두 해당 요청만 오류이며, JSON 문법 오류만 메시지 전체가 Parse error)
+ */
+@Component
+public class McpMessageParser {
+
+    private final JsonFactory jsonFactory;
+    private final ObjectReader requestReader;
+
+    public McpMessageParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.requestReader = objectMapper.readerFor(McpRequest.class);
+    }
+
+    /**
+     * 메시지를 파싱합니다.
+     *
+     * @param data 메시지 바이트 (UTF-8 JSON)
+     * @param offset 시작 위치
+     * @param length 길이
+     * @return 파싱된 메시지
+     * @throws com.fasterxml.jackson.core.JsonProcessingException JSON 형식이 잘못된 경우
+     * @throws IOException 기타 입력 오류
+     */
+    public Message parse(byte[] data, int offset, int length) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(data, offset, length)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                List<McpRequest> batch = new ArrayList<>();
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    batch.add(readEntry(parser, token));
+                }
+                return new Message(null, batch);
+            }
+            return new Message(readEntry(parser, token), null);
+        }
+    }
+
+    /**
+     * 현재 토큰 위치에서 요청 하나를 읽습니다. 객체가 아니면 건너뛰고 null을 반환합니다.
+     */
+    private McpRequest readRequest(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        return requestReader.readValue(parser);
+    }
+
+    /**
+     * 단일 요청 또는 batch 항목 하나를 읽습니다. 바인딩에 실패하면 객체의 나머지를 건너뛰고 null을 반환합니다.
+     */
+    private McpRequest readEntry(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            return readRequest(parser, token);
+        }
+        // 요청 객체를 감싼 컨텍스트 (batch 배열 또는 최상위, 객체가 끝나면 여기로 돌아옴)
+        JsonStreamContext parentContext = parser.getParsingContext().getParent();
+        try {
+            return readRequest(parser, token);
+        } catch (JsonMappingException e) {
+            while (parser.getParsingContext() != parentContext || parser.currentToken() != JsonToken.END_OBJECT) {
+                if (parser.nextToken() == null) {
+                    throw new JsonParseException(parser, "Unexpected end of request");
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 파싱된 JSON-RPC 메시지 (단일 요청 또는 batch)
+     */
+    public static class Message {
+        private final McpRequest request;
+        private final List<McpRequest> batch;
+
+        private Message(McpRequest request, List<McpRequest> batch) {
+            this.request = request;
+            this.batch = batch;
+        }
+
+        public boolean isBatch() {
+            return batch != null;
+        }
+
+        /**
+         * 단일 요청 (요청 객체가 아니었으면 null)
+         */
+        public McpRequest getRequest() {
+            return request;
+        }
+
+        /**
+         * batch 요청 목록 (요청 객체가 아닌 항목은 null)
+         */
+        public List<McpRequest> getBatch() {
+            return batch != null ? Collections.unmodifiableList(batch) : null;
+        }
+    }
+}
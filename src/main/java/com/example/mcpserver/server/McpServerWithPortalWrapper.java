@@ -1,14 +1,23 @@
 package com.example.mcpserver.server;
 
 import com.example.mcpserver.protocol.*;
+import com.example.mcpserver.portal.PortalJsonBody;
+import com.example.mcpserver.portal.PortalResponseCache;
 import com.example.mcpserver.portal.PortalRestClient;
+import com.example.mcpserver.util.EnvUtil;
 import com.example.mcpserver.util.LogUtil;
+import com.example.mcpserver.util.RequestCancellation;
+import com.example.mcpserver.util.SingleFlight;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 /**
  * MCP 서버 (REST Wrapper 버전)
@@ -32,22 +41,34 @@ public class McpServerWithPortalWrapper {
     private final ObjectMapper objectMapper;
     private final PortalRestClient portalRestClient;
     
-    // 등록된 도구들을 저장하는 맵
+    // 등록된 도구들을 저장하는 레지스트리
     // 각 도구는 포털 REST API 엔드포인트에 매핑됩니다.
-    private final Map<String, Tool> tools;
-    private final Map<String, PortalApiMapping> apiMappings;
+    private final ToolRegistry toolRegistry;
+    
+    // 조회 전용 도구의 포털 응답 캐시 (PortalApiMapping.withCacheTtl로 지정한 도구만 사용)
+    private static final int DEFAULT_CACHE_MAX_ENTRIES = 1000;
+    private final PortalResponseCache responseCache;
+    
+    // 멱등 도구의 동일한 동시 호출을 포털 요청 하나로 합침
+    private final SingleFlight<Object> portalSingleFlight = new SingleFlight<>();
+
+    // JSON-RPC batch 하나에 허용하는 기본 최대 항목 수
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
 
     public McpServerWithPortalWrapper(ObjectMapper objectMapper, PortalRestClient portalRestClient) {
         this.objectMapper = objectMapper;
         this.portalRestClient = portalRestClient;
-        this.tools = new ConcurrentHashMap<>();
-        this.apiMappings = new ConcurrentHashMap<>();
+        this.toolRegistry = new ToolRegistry(objectMapper);
+        this.responseCache = new PortalResponseCache(
+            Math.max(1, EnvUtil.getInt("PORTAL_CACHE_MAX_ENTRIES", DEFAULT_CACHE_MAX_ENTRIES)),
+            objectMapper
+        );
         
         // 포털 API를 MCP 도구로 매핑
         try {
             LogUtil.infoPrintln("MCP 서버 초기화 시작...");
             initializePortalTools();
-            LogUtil.infoPrintln("MCP 서버 초기화 완료. 등록된 도구 수: " + tools.size());
+            LogUtil.infoPrintln("MCP 서버 초기화 완료. 등록된 도구 수: " + toolRegistry.snapshot().getTools().size());
         } catch (Exception e) {
             LogUtil.errPrintln("MCP 서버 초기화 중 오류 발생: " + e.getMessage());
             e.printStackTrace();
@@ -79,7 +100,7 @@ public class McpServerWithPortalWrapper {
         registerTool(employeeTool, new PortalApiMapping(
             "/employees/{employeeId}",
             HttpMethod.GET
-        ));
+        ).withCacheTtl(Duration.ofSeconds(60)));
         
         // 예시 2: 휴가 신청 도구
         Map<String, Object> vacationSchema = new HashMap<>();
@@ -139,10 +160,11 @@ public class McpServerWithPortalWrapper {
             "메뉴 정보를 조회합니다. 포털 REST API: POST /selectMenuInfo.json",
             menuInfoSchema
         );
+        // POST지만 조회 전용이므로 캐시 허용
         registerTool(menuInfoTool, new PortalApiMapping(
             "/selectMenuInfo.json",
             HttpMethod.POST
-        ));
+        ).withCacheTtl(Duration.ofSeconds(60)));
         
             }
 
@@ -153,8 +175,34 @@ public class McpServerWithPortalWrapper {
      * @param apiMapping 포털 REST API 매핑 정보
      */
     public void registerTool(Tool tool, PortalApiMapping apiMapping) {
-        tools.put(tool.getName(), tool);
-        apiMappings.put(tool.getName(), apiMapping);
+        toolRegistry.register(tool, apiMapping);
+    }
+
+    /**
+     * 도구 등록을 해제합니다.
+     * 
+     * @param toolName 도구 이름
+     * @return 해제한 도구가 있으면 true
+     */
+    public boolean unregisterTool(String toolName) {
+        return toolRegistry.unregister(toolName);
+    }
+
+    /**
+     * 도구 목록이 바뀔 때 호출될 리스너를 등록합니다.
+     * 각 전송 계층은 이 리스너에서 notifications/tools/list_changed를 클라이언트에 보냅니다.
+     * 
+     * @param listener 도구 목록 변경 리스너
+     */
+    public void addToolsListChangedListener(ToolRegistry.ListChangedListener listener) {
+        toolRegistry.addListChangedListener(listener);
+    }
+
+    /**
+     * notifications/tools/list_changed 알림 메시지를 생성합니다.
+     */
+    public static McpRequest toolsListChangedNotification() {
+        return new McpRequest(null, "notifications/tools/list_changed", null);
     }
 
     /**
@@ -162,167 +210,513 @@ public class McpServerWithPortalWrapper {
      * 
      * @param request MCP 요청
      * @return MCP 응답
+     * @see #handleRequestAsync(McpRequest)
      */
     public McpResponse handleRequest(McpRequest request) {
+        return handleRequestAsync(request).join();
+    }
+
+    /**
+     * MCP 요청을 비동기로 처리합니다.
+     * 
+     * 포털 호출이 필요한 요청(tools/call)은 호출 스레드를 점유하지 않고 바로 반환하며,
+     * 나머지 요청은 이미 완료된 Future를 반환합니다.
+     * 반환된 Future는 예외로 완료되지 않으며, 오류는 McpError 응답으로 전달됩니다.
+     * 
+     * @param request MCP 요청
+     * @return MCP 응답 Future (Notification이면 null 응답)
+     */
+    public CompletableFuture<McpResponse> handleRequestAsync(McpRequest request) {
+        if (request == null || request.getMethod() == null) {
+            // 요청 객체가 아니거나 method가 없는 경우
+            return CompletableFuture.completedFuture(new McpResponse(
+                request != null ? request.getId() : null,
+                new McpError(McpError.ErrorCode.INVALID_REQUEST, "Invalid Request")
+            ));
+        }
+        if (request.getParamsError() != null) {
+            // params를 바인딩하지 못한 경우 (Notification이면 응답하지 않음)
+            return CompletableFuture.completedFuture(request.getId() == null ? null : new McpResponse(
+                request.getId(),
+                new McpError(McpError.ErrorCode.INVALID_PARAMS, "Invalid params: " + request.getParamsError())
+            ));
+        }
         try {
             String method = request.getMethod();
             String id = request.getId();
             
             switch (method) {
                 case "tools/list":
-                    return handleToolsList(id);
+                    return CompletableFuture.completedFuture(handleToolsList(id));
                     
                 case "tools/call":
                     return handleToolCall(id, request.getParams());
                     
                 case "initialize":
-                    return handleInitialize(id, request.getParams());
+                    return CompletableFuture.completedFuture(handleInitialize(id, request.getParams()));
                     
                 case "notifications/initialized":
                     // Notification은 응답이 필요 없음 (id가 null)
-                    return null;
+                    return CompletableFuture.completedFuture(null);
                     
                 default:
                     // Notification인 경우 (id가 null) 응답을 반환하지 않음
                     if (id == null) {
-                        return null;
+                        return CompletableFuture.completedFuture(null);
                     }
-                    return new McpResponse(id, new McpError(
+                    return CompletableFuture.completedFuture(new McpResponse(id, new McpError(
                         McpError.ErrorCode.METHOD_NOT_FOUND,
                         "Method not found: " + method
-                    ));
+                    )));
             }
         } catch (Exception e) {
-            return new McpResponse(
-                request.getId(),
-                new McpError(
-                    McpError.ErrorCode.INTERNAL_ERROR,
-                    "Internal server error: " + e.getMessage()
-                )
-            );
+            return CompletableFuture.completedFuture(internalError(request.getId(), e));
+        }
+    }
+
+    /**
+     * 취소 가능한 MCP 요청을 처리합니다.
+     * 
+     * @param request MCP 요청
+     * @param cancellation 취소 핸들 (null이면 handleRequest(request)와 동일)
+     * @return MCP 응답, 취소된 경우 null
+     * @see #handleRequestAsync(McpRequest, RequestCancellation)
+     */
+    public McpResponse handleRequest(McpRequest request, RequestCancellation cancellation) {
+        return handleRequestAsync(request, cancellation).join();
+    }
+
+    /**
+     * 취소 가능한 MCP 요청을 비동기로 처리합니다.
+     * 
+     * 포털 호출을 시작하는 동안 취소 핸들이 현재 스레드에 바인딩되어 포털 HTTP 요청과 연결되며,
+     * 처리 도중 취소되면 응답을 버리고 null로 완료합니다.
+     * 
+     * @param request MCP 요청
+     * @param cancellation 취소 핸들 (null이면 handleRequestAsync(request)와 동일)
+     * @return MCP 응답 Future, 취소된 경우 null 응답
+     */
+    public CompletableFuture<McpResponse> handleRequestAsync(McpRequest request, RequestCancellation cancellation) {
+        if (cancellation == null) {
+            return handleRequestAsync(request);
+        }
+        return cancellation.runWith(() -> handleRequestAsync(request))
+            .thenApply(response -> cancellation.isCancelled() ? null : response);
+    }
+
+    /**
+     * JSON-RPC 2.0 batch 요청을 처리합니다.
+     * 
+     * @param requests batch 요청 목록 (요청 객체가 아닌 항목은 null)
+     * @return 응답 목록 (모든 항목이 Notification이면 빈 목록)
+     * @see #handleBatchAsync(List, InFlightRequestRegistry)
+     */
+    public List<McpResponse> handleBatch(List<McpRequest> requests) {
+        return handleBatch(requests, null);
+    }
+
+    /**
+     * JSON-RPC 2.0 batch 요청을 처리합니다.
+     * 
+     * @param requests batch 요청 목록 (요청 객체가 아닌 항목은 null)
+     * @param inFlight 세션의 처리 중 요청 목록 (선택적)
+     * @return 응답 목록 (모든 항목이 Notification이면 빈 목록)
+     * @see #handleBatchAsync(List, InFlightRequestRegistry)
+     */
+    public List<McpResponse> handleBatch(List<McpRequest> requests, InFlightRequestRegistry inFlight) {
+        return handleBatchAsync(requests, inFlight).join();
+    }
+
+    /**
+     * JSON-RPC 2.0 batch 요청을 비동기로 처리합니다.
+     * 
+     * 각 항목의 포털 호출을 동시에 시작하고, 모두 끝나면 응답을 요청 순서대로 모아 완료합니다.
+     * Notification 항목의 응답은 포함하지 않으며, 항목별 오류는 해당 항목의 McpError로 반환됩니다.
+     * 처리 중 목록이 주어지면 각 항목을 등록하여 취소할 수 있게 하고, 취소된 항목의 응답은 제외합니다.
+     * 
+     * 모든 항목을 한꺼번에 시작하므로 동시 처리 수 제한을 적용하지 않습니다.
+     * 제한이 필요한 경우 submitBatch(요청 처리기) 또는 prepareBatchEntry / collectBatch를 사용합니다.
+     * 
+     * @param requests batch 요청 목록 (요청 객체가 아닌 항목은 null)
+     * @param inFlight 세션의 처리 중 요청 목록 (선택적)
+     * @return 응답 목록 Future (모든 항목이 Notification이면 빈 목록)
+     */
+    public CompletableFuture<List<McpResponse>> handleBatchAsync(List<McpRequest> requests, InFlightRequestRegistry inFlight) {
+        List<McpResponse> invalid = validateBatch(requests, DEFAULT_MAX_BATCH_SIZE);
+        if (invalid != null) {
+            return CompletableFuture.completedFuture(invalid);
+        }
+        
+        List<CompletableFuture<McpResponse>> futures = new ArrayList<>(requests.size());
+        for (McpRequest request : requests) {
+            futures.add(prepareBatchEntry(request, inFlight).get());
+        }
+        return collectBatch(requests, futures);
+    }
+
+    /**
+     * JSON-RPC 2.0 batch 요청을 요청 처리기에 항목별로 접수합니다. (HTTP/SSE 모드)
+     * 
+     * 항목마다 처리 자리 하나를 차지하므로 batch 하나로 동시 처리 수 제한을 넘지 않으며,
+     * 모든 항목을 넣을 자리가 없으면 통째로 거부합니다. (거부 시 항목을 등록하거나 처리하지 않음)
+     * 
+     * @param requests batch 요청 목록 (요청 객체가 아닌 항목은 null)
+     * @param inFlight 세션의 처리 중 요청 목록 (선택적)
+     * @param executor 요청 처리기
+     * @return 응답 목록 Future (모든 항목이 Notification이면 빈 목록), 처리기가 가득 차 거부되면 null
+     */
+    public CompletableFuture<List<McpResponse>> submitBatch(List<McpRequest> requests, InFlightRequestRegistry inFlight,
+                                                            BoundedRequestExecutor executor) {
+        List<McpResponse> invalid = validateBatch(requests, DEFAULT_MAX_BATCH_SIZE);
+        if (invalid != null) {
+            return CompletableFuture.completedFuture(invalid);
+        }
+        
+        List<CompletableFuture<McpResponse>> results = new ArrayList<>(requests.size());
+        boolean accepted = executor.submitAll(requests.size(), () -> {
+            List<BoundedRequestExecutor.Task> tasks = new ArrayList<>(requests.size());
+            for (McpRequest request : requests) {
+                Supplier<CompletableFuture<McpResponse>> entry = prepareBatchEntry(request, inFlight);
+                CompletableFuture<McpResponse> result = new CompletableFuture<>();
+                results.add(result);
+                // 시작하지 못한 항목도 응답 목록이 완성되도록 오류 응답으로 채움
+                tasks.add(BoundedRequestExecutor.Task.of(
+                    () -> entry.get().thenAccept(result::complete),
+                    e -> result.complete(internalError(request != null ? request.getId() : null, e))));
+            }
+            return tasks;
+        });
+        return accepted ? collectBatch(requests, results) : null;
+    }
+
+    /**
+     * batch 요청 자체를 검사합니다. (빈 배열, 최대 항목 수 초과)
+     * 
+     * @param requests batch 요청 목록
+     * @param maxBatchSize 최대 항목 수
+     * @return 잘못된 batch이면 단일 Invalid Request 오류 응답 목록, 처리할 수 있으면 null
+     */
+    public static List<McpResponse> validateBatch(List<McpRequest> requests, int maxBatchSize) {
+        if (requests.isEmpty()) {
+            // 빈 배열은 단일 Invalid Request 오류로 응답 (JSON-RPC 2.0 규격)
+            return List.of(new McpResponse(null, new McpError(
+                McpError.ErrorCode.INVALID_REQUEST,
+                "Invalid Request: empty batch"
+            )));
+        }
+        if (requests.size() > maxBatchSize) {
+            return List.of(new McpResponse(null, new McpError(
+                McpError.ErrorCode.INVALID_REQUEST,
+                "Invalid Request: batch too large (" + requests.size() + " > " + maxBatchSize + ")"
+            )));
+        }
+        return null;
+    }
+
+    /**
+     * batch 항목 하나를 처리할 작업을 만듭니다.
+     * 
+     * 취소 알림 항목은 지금 바로 처리하고, 나머지는 지금 처리 중 목록에 등록하여
+     * 작업이 시작되기 전(대기 중)에도 취소할 수 있게 합니다.
+     * 반환된 작업은 대기 중에 취소되었으면 처리하지 않고 null 응답으로 완료하며, 예외로 완료되지 않습니다.
+     * 
+     * @param request batch 항목 (요청 객체가 아니었으면 null)
+     * @param inFlight 세션의 처리 중 요청 목록 (선택적)
+     * @return 처리를 시작하고 항목 응답 Future를 반환하는 작업
+     */
+    public Supplier<CompletableFuture<McpResponse>> prepareBatchEntry(McpRequest request, InFlightRequestRegistry inFlight) {
+        if (inFlight != null && inFlight.handleCancelledNotification(request)) {
+            return () -> CompletableFuture.completedFuture(null);
+        }
+        RequestCancellation cancellation = inFlight != null ? inFlight.register(request) : null;
+        String id = request != null ? request.getId() : null;
+        return () -> {
+            CompletableFuture<McpResponse> response;
+            if (cancellation != null && cancellation.isCancelled()) {
+                response = CompletableFuture.completedFuture(null);
+            } else {
+                try {
+                    response = handleRequestAsync(request, cancellation)
+                        .exceptionally(e -> internalError(id, e));
+                } catch (RuntimeException e) {
+                    response = CompletableFuture.completedFuture(internalError(id, e));
+                }
+            }
+            return response.whenComplete((ignored, e) -> {
+                if (inFlight != null) {
+                    inFlight.complete(cancellation);
+                }
+            });
+        };
+    }
+
+    /**
+     * batch 항목 응답을 요청 순서대로 모읍니다. (Notification / 취소된 항목 제외)
+     * 
+     * @param requests batch 요청 목록
+     * @param futures 항목별 응답 Future (requests와 같은 순서)
+     * @return 응답 목록 Future (모든 항목이 Notification이면 빈 목록)
+     */
+    public static CompletableFuture<List<McpResponse>> collectBatch(List<McpRequest> requests,
+                                                                    List<CompletableFuture<McpResponse>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<McpResponse> responses = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                McpResponse response = futures.get(i).join();
+                if (isReplyRequired(requests.get(i), response)) {
+                    responses.add(response);
+                }
+            }
+            return responses;
+        });
+    }
+
+    private static McpResponse internalError(String id, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return new McpResponse(id, new McpError(
+            McpError.ErrorCode.INTERNAL_ERROR,
+            "Internal server error: " + cause.getMessage()
+        ));
+    }
+
+    /**
+     * 요청에 대한 응답을 클라이언트에 보내야 하는지 판단합니다.
+     * Notification(id가 null인 정상 요청)에는 응답하지 않고,
+     * 요청 형식 자체가 잘못된 경우에는 id가 없어도 오류를 응답합니다.
+     * 
+     * @param request 요청 (요청 객체가 아니었으면 null)
+     * @param response handleRequest 결과
+     * @return 응답 전송 여부
+     */
+    public static boolean isReplyRequired(McpRequest request, McpResponse response) {
+        if (response == null) {
+            return false;
         }
+        return request == null || request.getMethod() == null || request.getId() != null;
     }
 
     /**
      * 도구 목록을 반환합니다.
      */
     private McpResponse handleToolsList(String id) {
-        Map<String, Object> result = new HashMap<>();
-        result.put("tools", new ArrayList<>(tools.values()));
-        return new McpResponse(id, result);
+        // 도구 목록이 바뀔 때만 다시 인코딩되는 결과를 그대로 사용
+        return new McpResponse(id, toolRegistry.snapshot().getToolsListResult());
     }
 
     /**
      * 도구 호출을 처리합니다.
-     * 포털 REST API를 호출합니다.
+     * 포털 REST API를 비동기로 호출하며, 인자 오류는 포털 호출 없이 바로 응답합니다.
      */
-    @SuppressWarnings("unchecked")
-    private McpResponse handleToolCall(String id, Object params) {
+    private CompletableFuture<McpResponse> handleToolCall(String id, Object params) {
         try {
-            Map<String, Object> paramsMap = objectMapper.convertValue(params, Map.class);
-            String toolName = (String) paramsMap.get("name");
-            Map<String, Object> arguments = (Map<String, Object>) paramsMap.get("arguments");
+            ToolCallRequest toolCall = toToolCallRequest(params);
+            if (toolCall == null) {
+                return CompletableFuture.completedFuture(new McpResponse(id, new McpError(
+                    McpError.ErrorCode.INVALID_PARAMS,
+                    "Missing params for tools/call"
+                )));
+            }
+            String toolName = toolCall.getName();
+            Map<String, Object> arguments = toolCall.getArguments();
             
             // 도구가 존재하는지 확인
-            if (!tools.containsKey(toolName)) {
-                return new McpResponse(id, new McpError(
+            ToolRegistry.Snapshot catalog = toolRegistry.snapshot();
+            if (catalog.getTool(toolName) == null) {
+                return CompletableFuture.completedFuture(new McpResponse(id, new McpError(
                     McpError.ErrorCode.INVALID_PARAMS,
                     "Tool not found: " + toolName
-                ));
+                )));
             }
             
             // 포털 API 매핑 정보 가져오기
-            PortalApiMapping mapping = apiMappings.get(toolName);
+            PortalApiMapping mapping = catalog.getApiMapping(toolName);
             if (mapping == null) {
-                return new McpResponse(id, new McpError(
+                return CompletableFuture.completedFuture(new McpResponse(id, new McpError(
                     McpError.ErrorCode.INTERNAL_ERROR,
                     "API mapping not found for tool: " + toolName
-                ));
+                )));
             }
             
-            // 액세스 토큰 추출
+            // inputSchema 검증 (잘못된 인자는 포털 호출 전에 거부)
+            ArgumentValidator validator = catalog.getValidator(toolName);
+            String violation = validator != null ? validator.validate(arguments) : null;
+            if (violation != null) {
+                return CompletableFuture.completedFuture(new McpResponse(id, new McpError(
+                    McpError.ErrorCode.INVALID_PARAMS,
+                    "Invalid arguments for " + toolName + ": " + violation
+                )));
+            }
+            
+            // 액세스 토큰 추출 (토큰 원문은 로그에 남기지 않음)
             String access_token = null;
             if (arguments != null) {
-                if (arguments.containsKey("access_token")) {
-                    access_token = (String) arguments.get("access_token");
-                    LogUtil.debugPrintln("[DEBUG] 액세스 토큰 추출 성공 (access_token): " + access_token);
-                }
-                
-                if (access_token == null) {
+                Object token = arguments.get("access_token");
+                if (token instanceof String) {
+                    access_token = (String) token;
+                    LogUtil.debugPrintf("[DEBUG] 액세스 토큰 추출 성공 (access_token, 길이 {})", access_token.length());
+                } else if (token != null) {
+                    return CompletableFuture.completedFuture(new McpResponse(id, new McpError(
+                        McpError.ErrorCode.INVALID_PARAMS,
+                        "Invalid arguments for " + toolName + ": access_token must be a string"
+                    )));
+                } else {
                     LogUtil.debugPrintln("[DEBUG] 액세스 토큰을 찾을 수 없습니다.");
                 }
             } else {
                 LogUtil.debugPrintln("[DEBUG] arguments가 null입니다.");
             }
             
-            // 액세스 토큰 전달 여부 저장 (응답 처리 시 사용)
-            final boolean hasAccessToken = access_token != null && !access_token.trim().isEmpty();
+            // POST/PUT 요청 본문 구성 (경로 변수와 access_token을 제외한 인자)
+            Object requestBody = mapping.buildRequestBody(arguments);
             
-            // POST 요청 본문 구성 (.json으로 끝나는 엔드포인트는 input_data 구조로 전송)
-            Object requestBody = null;
-            if (mapping.getMethod() == HttpMethod.POST || mapping.getMethod() == HttpMethod.PUT) {
-                    if (arguments != null) {
-                        requestBody = new HashMap<>(arguments);
-                    }
-                }
+            // 포털 REST API 호출 (GET/DELETE는 나머지 인자를 쿼리 문자열로 전달)
+            String endpoint;
+            try {
+                endpoint = mapping.buildEndpoint(arguments);
+            } catch (IllegalArgumentException e) {
+                return CompletableFuture.completedFuture(new McpResponse(id, new McpError(
+                    McpError.ErrorCode.INVALID_PARAMS,
+                    e.getMessage()
+                )));
             }
+
+            return callPortalApi(mapping, endpoint, requestBody, access_token)
+                .thenApply(apiResult -> toToolResult(id, apiResult))
+                .exceptionally(e -> portalError(id, e));
             
-            // 포털 REST API 호출
-            String endpoint = buildEndpoint(mapping.getEndpoint(), arguments);
-
-            Object apiResult = portalRestClient.callPortalApi(
-                endpoint,
-                mapping.getMethod(),
-                requestBody,
-                access_token
-            );
-            
-            // 응답 원본 로그 출력 (디버깅 용)
-            // try {
-            //     if (apiResult instanceof String) {
-            //         LogUtil.debugPrintln("[DEBUG] API 응답 (String): " + apiResult);
-            //     } else if (apiResult instanceof Map) {
-            //         String responseJson = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(apiResult);
-            //         LogUtil.debugPrintln("[DEBUG] API 응답 (Map):\n" + responseJson);
-            //     } else {
-            //         LogUtil.debugPrintln("[DEBUG] API 응답 (기타 타입): " + apiResult);
-            //     }
-            // } catch (Exception e) {
-            //     LogUtil.debugPrintln("[DEBUG] API 응답 로그 출력 실패: " + e.getMessage());
-            // }
-            
-            // TODO: 오류 응답 처리
-            
-            // 결과를 MCP 형식으로 변환
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(portalError(id, e));
+        }
+    }
+
+    /**
+     * 포털 응답을 MCP 도구 결과 형식으로 변환합니다.
+     */
+    private McpResponse toToolResult(String id, Object apiResult) {
+        // 응답 원본 로그 출력 (디버깅 용)
+        // try {
+        //     if (apiResult instanceof String) {
+        //         LogUtil.debugPrintln("[DEBUG] API 응답 (String): " + apiResult);
+        //     } else if (apiResult instanceof Map) {
+        //         String responseJson = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(apiResult);
+        //         LogUtil.debugPrintln("[DEBUG] API 응답 (Map):\n" + responseJson);
+        //     } else {
+        //         LogUtil.debugPrintln("[DEBUG] API 응답 (기타 타입): " + apiResult);
+        //     }
+        // } catch (Exception e) {
+        //     LogUtil.debugPrintln("[DEBUG] API 응답 로그 출력 실패: " + e.getMessage());
+        // }
+        
+        // TODO: 오류 응답 처리
+        
+        // 결과를 MCP 형식으로 변환
+        try {
             Map<String, Object> responseResult = new HashMap<>();
             responseResult.put("content", Arrays.asList(
-                Map.of("type", "text", "text", objectMapper.writeValueAsString(apiResult))
+                Map.of("type", "text", "text", toTextContent(apiResult))
             ));
             return new McpResponse(id, responseResult);
-            
-        } catch (Exception e) {
-            // 에러 상세 정보 포함
-            String errorMessage = "Error calling portal API: " + e.getMessage();
-            if (e.getCause() != null) {
-                errorMessage += " (원인: " + e.getCause().getMessage() + ")";
+        } catch (JsonProcessingException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * 포털 호출 오류를 MCP 오류 응답으로 변환합니다.
+     */
+    private static McpResponse portalError(String id, Throwable error) {
+        Throwable e = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        // 에러 상세 정보 포함
+        String errorMessage = "Error calling portal API: " + e.getMessage();
+        if (e.getCause() != null) {
+            errorMessage += " (원인: " + e.getCause().getMessage() + ")";
+        }
+        return new McpResponse(id, new McpError(
+            McpError.ErrorCode.INTERNAL_ERROR,
+            errorMessage
+        ));
+    }
+
+    /**
+     * 포털 REST API를 호출합니다.
+     * 
+     * 멱등 도구는 같은 도구·인자·토큰 범위의 동시 호출을 포털 요청 하나로 합치고(single-flight),
+     * 캐시가 허용된 도구는 먼저 응답 캐시를 확인하고 없을 때만 포털을 호출합니다.
+     * 회로 차단과 응답 시간은 엔드포인트 템플릿 단위로 집계하며, GET과 멱등 도구만 재시도 / 헤지합니다.
+     */
+    private CompletableFuture<Object> callPortalApi(PortalApiMapping mapping, String endpoint, Object requestBody, String access_token) {
+        if (!mapping.isIdempotent()) {
+            return sendPortalRequest(mapping, endpoint, requestBody, access_token);
+        }
+        
+        String key = responseCache.buildKey(mapping.getMethod(), endpoint, requestBody, access_token);
+        if (mapping.isCacheable()) {
+            Object cached = responseCache.get(key);
+            if (cached != null) {
+                LogUtil.debugPrintf("[DEBUG] 포털 응답 캐시 사용: {}", endpoint);
+                return CompletableFuture.completedFuture(cached);
             }
-            return new McpResponse(id, new McpError(
-                McpError.ErrorCode.INTERNAL_ERROR,
-                errorMessage
-            ));
         }
+        
+        return portalSingleFlight.execute(key, () -> sendPortalRequest(mapping, endpoint, requestBody, access_token)
+            .thenApply(apiResult -> {
+                if (mapping.isCacheable()) {
+                    responseCache.put(key, apiResult, mapping.getCacheTtl());
+                }
+                return apiResult;
+            }));
+    }
+
+    private CompletableFuture<Object> sendPortalRequest(PortalApiMapping mapping, String endpoint, Object requestBody, String access_token) {
+        return portalRestClient.callPortalApiAsync(endpoint, mapping.getMethod(), requestBody, access_token,
+            mapping.getMethod().name() + " " + mapping.getEndpoint(),
+            mapping.isIdempotent() || mapping.getMethod() == HttpMethod.GET);
     }
 
     /**
-     * 엔드포인트에 파라미터를 치환합니다.
-     * 예: "/employees/{employeeId}" + {employeeId: "123"} → "/employees/123"
+     * 포털 응답을 도구 결과 text로 변환합니다.
+     * 포털 JSON 원본(PortalJsonBody)은 다시 직렬화하지 않고 그대로 문자열 값으로 출력됩니다.
      */
-    private String buildEndpoint(String endpoint, Map<String, Object> arguments) {
-        String result = endpoint;
-        for (Map.Entry<String, Object> entry : arguments.entrySet()) {
-            result = result.replace("{" + entry.getKey() + "}", entry.getValue().toString());
+    private Object toTextContent(Object apiResult) throws JsonProcessingException {
+        if (apiResult instanceof PortalJsonBody) {
+            return apiResult;
         }
-        return result;
+        return objectMapper.writeValueAsString(apiResult);
+    }
+
+    /**
+     * 포털 노드별 상태를 반환합니다. (처리 중 요청 수, 제외 여부, 가중치 등)
+     */
+    public Map<String, Object> getPortalNodeStats() {
+        return portalRestClient.getNodeStats();
+    }
+
+    /**
+     * 포털 호출 장애 대응 통계를 반환합니다. (재시도 / 헤지 횟수, 재시도 예산, 엔드포인트별 회로 상태)
+     */
+    public Map<String, Object> getPortalCallStats() {
+        return portalRestClient.getCallPolicyStats();
+    }
+
+    /**
+     * 포털 응답 캐시 통계를 반환합니다. (hits, misses, hitRatio, evictions, 동시 호출 합침 횟수, 조건부 GET 등)
+     */
+    public Map<String, Object> getResponseCacheStats() {
+        Map<String, Object> stats = responseCache.getStats();
+        stats.put("coalescedCalls", portalSingleFlight.getSharedCalls());
+        stats.put("conditionalGet", portalRestClient.getConditionalGetStats());
+        return stats;
+    }
+
+    /**
+     * tools/call params를 ToolCallRequest로 변환합니다.
+     * McpRequestDeserializer가 이미 바인딩한 경우 그대로 사용합니다. (추가 복사 없음)
+     */
+    private ToolCallRequest toToolCallRequest(Object params) {
+        if (params == null || params instanceof ToolCallRequest) {
+            return (ToolCallRequest) params;
+        }
+        return objectMapper.convertValue(params, ToolCallRequest.class);
     }
 
     /**
@@ -344,14 +738,70 @@ public class McpServerWithPortalWrapper {
 
     /**
      * 포털 REST API 매핑 정보
+     * 
+     * 엔드포인트 템플릿은 생성(도구 등록) 시 한 번만 컴파일됩니다.
+     * 도구 인자는 다음과 같이 나뉩니다.
+     * - 경로 변수: 템플릿의 {name} 자리에 인코딩되어 들어감
+     * - access_token: 요청 헤더(Authorization)로만 전달
+     * - 나머지: GET/DELETE는 쿼리 문자열, POST/PUT은 요청 본문
      */
     public static class PortalApiMapping {
+        // 요청 헤더로 전달되는 인자 (쿼리 문자열/본문에 넣지 않음)
+        private static final Set<String> HEADER_ARGUMENTS = Set.of("access_token");
+        
         private final String endpoint;
         private final HttpMethod method;
+        private final EndpointTemplate template;
+        // 멱등(조회 전용) 여부 - 동시 호출 합침(single-flight) 허용
+        private final boolean idempotent;
+        // 응답 캐시 보관 시간 (null이면 캐시하지 않음)
+        private final Duration cacheTtl;
         
         public PortalApiMapping(String endpoint, HttpMethod method) {
+            this(endpoint, method, EndpointTemplate.compile(endpoint), false, null);
+        }
+        
+        private PortalApiMapping(String endpoint, HttpMethod method, EndpointTemplate template,
+                                 boolean idempotent, Duration cacheTtl) {
             this.endpoint = endpoint;
             this.method = method;
+            this.template = template;
+            this.idempotent = idempotent;
+            this.cacheTtl = cacheTtl;
+        }
+        
+        /**
+         * 멱등(부작용 없는) API로 표시한 매핑을 반환합니다.
+         * 같은 인자와 같은 access_token으로 동시에 들어온 호출은 포털 요청 하나로 합쳐집니다.
+         * 
+         * @return 멱등으로 표시된 매핑
+         */
+        public PortalApiMapping asIdempotent() {
+            return new PortalApiMapping(endpoint, method, template, true, cacheTtl);
+        }
+        
+        /**
+         * 응답 캐시를 허용한 매핑을 반환합니다. (멱등으로도 표시됩니다.)
+         * 같은 인자와 같은 access_token으로 반복 호출하면 ttl 동안 캐시된 응답을 사용합니다.
+         * 조회 전용(부작용 없는) API에만 사용해야 합니다.
+         * 
+         * @param ttl 캐시 보관 시간
+         * @return 캐시가 허용된 매핑
+         */
+        public PortalApiMapping withCacheTtl(Duration ttl) {
+            return new PortalApiMapping(endpoint, method, template, true, ttl);
+        }
+        
+        public boolean isIdempotent() {
+            return idempotent;
+        }
+        
+        public Duration getCacheTtl() {
+            return cacheTtl;
+        }
+        
+        public boolean isCacheable() {
+            return cacheTtl != null && !cacheTtl.isZero() && !cacheTtl.isNegative();
         }
         
         public String getEndpoint() {
@@ -361,6 +811,55 @@ public class McpServerWithPortalWrapper {
         public HttpMethod getMethod() {
             return method;
         }
+        
+        public EndpointTemplate getTemplate() {
+            return template;
+        }
+        
+        /**
+         * 요청 본문을 사용하는 메서드(POST/PUT)인지 여부
+         */
+        public boolean hasRequestBody() {
+            return method == HttpMethod.POST || method == HttpMethod.PUT;
+        }
+        
+        /**
+         * 인자가 쿼리 문자열 또는 요청 본문에 들어가는지 여부
+         */
+        public boolean isRequestArgument(String name) {
+            return !HEADER_ARGUMENTS.contains(name) && !template.isPathVariable(name);
+        }
+        
+        /**
+         * 엔드포인트를 확장합니다.
+         * 예: "/employees/{employeeId}" + {employeeId: "123"} → "/employees/123"
+         * 
+         * @param arguments 도구 인자 (null 가능)
+         * @return 확장된 엔드포인트
+         * @throws IllegalArgumentException 경로 변수 값이 없는 경우
+         */
+        public String buildEndpoint(Map<String, Object> arguments) {
+            return template.expand(arguments, hasRequestBody() ? null : this::isRequestArgument);
+        }
+        
+        /**
+         * POST/PUT 요청 본문을 구성합니다.
+         * 
+         * @param arguments 도구 인자 (null 가능)
+         * @return 요청 본문, 본문이 없는 메서드이거나 인자가 없으면 null
+         */
+        public Map<String, Object> buildRequestBody(Map<String, Object> arguments) {
+            if (!hasRequestBody() || arguments == null) {
+                return null;
+            }
+            Map<String, Object> body = new LinkedHashMap<>(arguments.size());
+            for (Map.Entry<String, Object> entry : arguments.entrySet()) {
+                if (isRequestArgument(entry.getKey())) {
+                    body.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return body;
+        }
     }
 }
 
@@ -1,17 +1,32 @@
 package com.example.mcpserver.server;
 
 import com.example.mcpserver.protocol.*;
+import com.example.mcpserver.portal.ConnectionPoolMonitor;
+import com.example.mcpserver.portal.PortalHttpClientSettings;
+import com.example.mcpserver.portal.PortalJsonBody;
 import com.example.mcpserver.portal.PortalRestClient;
+import com.example.mcpserver.util.EnvUtil;
 import com.example.mcpserver.util.LogUtil;
+import com.example.mcpserver.util.RequestCancellation;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
 import org.springframework.web.client.RestTemplate;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * 표준 MCP 서버 (stdio 기반)
@@ -37,87 +52,330 @@ import java.nio.charset.StandardCharsets;
 public class McpStdioServer {
     
     private final McpServerWithPortalWrapper mcpServer;
+    private final PortalRestClient portalClient;
     private final ObjectMapper objectMapper;
-    private final BufferedReader reader;
-    private final PrintWriter writer;
+    private final StdioMessageReader reader;
+    private final StdioResponseWriter writer;
+    
+    // 동시 요청 처리 (기본 16개, MCP_STDIO_MAX_IN_FLIGHT=1이면 순차 처리)
+    private static final int DEFAULT_MAX_IN_FLIGHT = 16;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+    private static final int DEFAULT_WRITE_QUEUE_SIZE = 1024;
+    private static final int DEFAULT_MAX_PENDING = 256;
+    private static final Supplier<CompletableFuture<Void>> END_OF_INPUT = () -> null;
+    // 시작 시 JIT 예열용 합성 메시지 (포털을 호출하지 않는 요청만, 마지막은 batch)
+    private static final String WARMUP_MESSAGES =
+        "{\"jsonrpc\":\"2.0\",\"id\":\"warmup-1\",\"method\":\"initialize\",\"params\":{\"protocolVersion\":\"2024-11-05\","
+            + "\"capabilities\":{},\"clientInfo\":{\"name\":\"warmup\",\"version\":\"0\"}}}\n"
+            + "{\"jsonrpc\":\"2.0\",\"id\":\"warmup-2\",\"method\":\"tools/list\"}\n"
+            + "[{\"jsonrpc\":\"2.0\",\"id\":\"warmup-3\",\"method\":\"ping\"},"
+            + "{\"jsonrpc\":\"2.0\",\"method\":\"notifications/initialized\"}]\n";
+    // 예열용 도구 결과에 담을 합성 포털 응답 본문
+    private static final String WARMUP_PORTAL_BODY = "{\"warmup\":true,\"items\":[{\"id\":1,\"name\":\"예열\"}]}";
+    private final int maxInFlight;
+    private final int maxBatchSize;
+    private final Semaphore inFlightPermits;
+    // 처리 대기 중인 요청 (stdin 읽기 스레드 → dispatcher 스레드)
+    private final BlockingQueue<Supplier<CompletableFuture<Void>>> pending;
+    // 처리 중인 요청 목록 (notifications/cancelled 처리용)
+    private final InFlightRequestRegistry inFlight = new InFlightRequestRegistry();
+    // 포털 HTTP 연결 풀 통계 (종료 시 로그 출력)
+    private final ConnectionPoolMonitor connectionPoolMonitor = new ConnectionPoolMonitor();
     
     public McpStdioServer() {
         this.objectMapper = new ObjectMapper();
-        this.mcpServer = createMcpServer();
-        // UTF-8 인코딩으로 stdin 읽기
-        this.reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
-        // UTF-8 인코딩으로 stdout 쓰기
-        this.writer = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), true);
+        ObjectMapper portalMapper = new ObjectMapper();
+        portalMapper.configure(com.fasterxml.jackson.core.JsonGenerator.Feature.ESCAPE_NON_ASCII, false);
+        this.portalClient = createPortalClient(portalMapper);
+        this.mcpServer = new McpServerWithPortalWrapper(portalMapper, portalClient);
+        // stdin 바이트 스트림을 직접 파싱 (JSON은 UTF-8)
+        this.reader = new StdioMessageReader(System.in, objectMapper);
+        // stdout 쓰기는 전용 writer 스레드가 담당 (UTF-8)
+        this.writer = new StdioResponseWriter(
+            System.out,
+            objectMapper,
+            Math.max(1, EnvUtil.getInt("MCP_STDIO_WRITE_QUEUE_SIZE", DEFAULT_WRITE_QUEUE_SIZE))
+        );
+        this.maxInFlight = Math.max(1, EnvUtil.getInt("MCP_STDIO_MAX_IN_FLIGHT", DEFAULT_MAX_IN_FLIGHT));
+        this.maxBatchSize = Math.max(1, EnvUtil.getInt("MCP_STDIO_MAX_BATCH_SIZE", McpServerWithPortalWrapper.DEFAULT_MAX_BATCH_SIZE));
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.pending = new LinkedBlockingQueue<>(Math.max(1, EnvUtil.getInt("MCP_STDIO_MAX_PENDING", DEFAULT_MAX_PENDING)));
+        // 도구 목록이 바뀌면 클라이언트에 알림
+        this.mcpServer.addToolsListChangedListener(
+            version -> writer.send(McpServerWithPortalWrapper.toolsListChangedNotification()));
     }
     
     /**
-     * MCP 서버 인스턴스를 생성합니다.
-     * 포털 REST API를 래핑하는 서버를 생성합니다.
+     * 포털 REST API 클라이언트를 생성합니다.
+     * (MCP 서버는 이 클라이언트로 포털 REST API를 래핑하며, 종료 시 함께 닫음)
      */
-    private McpServerWithPortalWrapper createMcpServer() {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.configure(com.fasterxml.jackson.core.JsonGenerator.Feature.ESCAPE_NON_ASCII, false);
-        RestTemplate restTemplate = com.example.mcpserver.util.SslByPassUtil.createRestTemplateWithSslBypass(mapper);
-        PortalRestClient portalClient = new PortalRestClient(restTemplate);
-        return new McpServerWithPortalWrapper(mapper, portalClient);
+    private PortalRestClient createPortalClient(ObjectMapper mapper) {
+        // 연결 풀 / 타임아웃 설정은 환경 변수(PORTAL_HTTP_*)로 지정
+        PortalHttpClientSettings httpSettings = PortalHttpClientSettings.fromEnvironment();
+        LogUtil.infoPrintln("포털 HTTP 클라이언트 설정: " + httpSettings);
+        RestTemplate restTemplate = com.example.mcpserver.util.SslByPassUtil.createRestTemplateWithSslBypass(
+            mapper, httpSettings, connectionPoolMonitor);
+        CloseableHttpAsyncClient asyncHttpClient = com.example.mcpserver.util.SslByPassUtil.createAsyncHttpClientWithSslBypass(
+            httpSettings, connectionPoolMonitor);
+        return new PortalRestClient(restTemplate, asyncHttpClient, httpSettings);
     }
     
     /**
      * 서버를 시작합니다.
-     * 표준 입력에서 메시지를 읽고 처리합니다.
+     * 표준 입력에서 메시지를 읽고, 각 요청을 비동기로 시작하여 동시에 처리합니다.
+     * 포털 응답을 기다리는 동안 스레드를 점유하지 않습니다.
+     * 
+     * 응답은 완료되는 순서대로 전송되며, 클라이언트는 JSON-RPC id로 요청과 응답을 매칭합니다.
+     * 처리 중인 요청이 최대치(MCP_STDIO_MAX_IN_FLIGHT)에 도달하면 새 요청은 대기 큐에 쌓이고,
+     * 대기 큐(MCP_STDIO_MAX_PENDING)까지 가득 차면 다음 줄을 읽지 않고 대기합니다.
+     * batch 요청은 항목마다 대기 큐에 넣으므로 항목 하나가 요청 하나와 같이 처리 허가를 사용합니다.
+     * 
+     * "notifications/cancelled"는 대기 없이 읽는 즉시 처리합니다.
      */
     public void start() {
-        LogUtil.infoPrintln("MCP 서버 시작 (stdio 모드)");
+        LogUtil.infoPrintln("MCP 서버 시작 (stdio 모드, 최대 동시 요청 수: " + maxInFlight + ")");
+        if (Boolean.parseBoolean(EnvUtil.getString("MCP_STDIO_WARMUP", "true"))) {
+            warmUp();
+        }
         
+        Thread dispatcher = new Thread(this::runDispatcher, "mcp-stdio-dispatcher");
+        dispatcher.setDaemon(true);
         try {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) {
+            writer.start();
+            dispatcher.start();
+            while (true) {
+                McpMessageParser.Message message;
+                try {
+                    // JSON-RPC 메시지 파싱 (stdin 바이트 스트림에서 바로 바인딩)
+                    message = reader.readMessage();
+                } catch (JsonProcessingException e) {
+                    // 잘못된 메시지는 해당 줄만 버리고 계속 읽음
+                    LogUtil.errPrintln("요청 파싱 실패: " + e.getOriginalMessage());
+                    sendResponse(new McpResponse(null, new McpError(
+                        McpError.ErrorCode.PARSE_ERROR,
+                        "Parse error: " + e.getOriginalMessage()
+                    )));
                     continue;
                 }
+                if (message == null) {
+                    // stdin 종료
+                    break;
+                }
                 
-                try {
-                    // JSON-RPC 요청 파싱
-                    JsonNode requestNode = objectMapper.readTree(line);
-                    
-                    // 요청 생성
-                    McpRequest request = new McpRequest();
-                    request.setId(requestNode.has("id") ? requestNode.get("id").asText() : null);
-                    request.setMethod(requestNode.has("method") ? requestNode.get("method").asText() : null);
-                    request.setParams(requestNode.has("params") ? requestNode.get("params") : null);
-                    
-                    // 요청 처리
-                    McpResponse response = mcpServer.handleRequest(request);
-                    
-                    // Notification(id가 null)인 경우 응답을 보내지 않음
-                    if (response != null && request.getId() != null) {
-                        // 응답 전송 (표준 출력)
-                        String responseJson = objectMapper.writeValueAsString(response);
-                        writer.println(responseJson);
-                        writer.flush();
+                if (message.isBatch()) {
+                    enqueueBatch(message.getBatch());
+                } else {
+                    McpRequest request = message.getRequest();
+                    // 취소 알림은 처리 중 요청 수 제한과 관계없이 즉시 처리
+                    if (inFlight.handleCancelledNotification(request)) {
+                        continue;
                     }
-                    
-                } catch (Exception e) {
-                    // 오류 발생 시 오류 응답 전송
-                    LogUtil.errPrintln("오류 발생: " + e.getMessage());
-                    e.printStackTrace();
-                    
-                    McpResponse errorResponse = new McpResponse(
-                        null,
-                        new McpError(
-                            McpError.ErrorCode.INTERNAL_ERROR,
-                            "Internal error: " + e.getMessage()
-                        )
-                    );
-                    
-                    String errorJson = objectMapper.writeValueAsString(errorResponse);
-                    writer.println(errorJson);
-                    writer.flush();
+                    // 수신 시점에 등록해야 대기 중인 요청도 취소할 수 있음
+                    RequestCancellation cancellation = inFlight.register(request);
+                    pending.put(() -> dispatch(request, cancellation));
                 }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LogUtil.errPrintln("서버 종료 (인터럽트)");
         } catch (Exception e) {
             LogUtil.errPrintln("서버 종료: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            stopDispatcher(dispatcher);
+            awaitInFlightRequests();
+            LogUtil.infoPrintln("포털 HTTP 연결 풀 통계: " + connectionPoolMonitor.getStats());
+            LogUtil.infoPrintln("포털 노드 상태: " + mcpServer.getPortalNodeStats());
+            LogUtil.infoPrintln("포털 호출 통계: " + mcpServer.getPortalCallStats());
+            writer.close(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+            portalClient.close();
+        }
+    }
+    
+    /**
+     * 첫 실제 메시지를 읽기 전에 합성 메시지로 읽기 → handleRequest → 직렬화 경로를 한 번 실행합니다.
+     * 
+     * 새 에디터 세션마다 프로세스가 새로 시작되므로, 클래스 로딩과 Jackson 직렬화기 생성 비용을
+     * 첫 도구 호출 대신 시작 시점에 냅니다. 포털은 호출하지 않으며, 응답은 버립니다.
+     * (포털 연결 예열은 PortalRestClient가 portal.http.warmup-connections에 따라 별도로 수행)
+     */
+    private void warmUp() {
+        long startNanos = System.nanoTime();
+        StdioMessageReader warmUpReader = new StdioMessageReader(
+            new ByteArrayInputStream(WARMUP_MESSAGES.getBytes(StandardCharsets.UTF_8)), objectMapper);
+        StdioResponseWriter warmUpWriter = new StdioResponseWriter(OutputStream.nullOutputStream(), objectMapper, 16);
+        try {
+            warmUpWriter.start();
+            McpMessageParser.Message message;
+            while ((message = warmUpReader.readMessage()) != null) {
+                if (message.isBatch()) {
+                    warmUpWriter.send(mcpServer.handleBatch(message.getBatch()));
+                } else {
+                    McpResponse response = mcpServer.handleRequest(message.getRequest());
+                    if (response != null) {
+                        warmUpWriter.send(response);
+                    }
+                }
+            }
+            warmUpWriter.send(warmUpToolResult("warmup-4"));
+            LogUtil.debugPrintf("[DEBUG] 요청 처리 경로 예열 완료 ({}ms)",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } catch (Exception e) {
+            // 예열 실패는 요청 처리에 영향을 주지 않음
+            LogUtil.errPrintln("요청 처리 경로 예열 실패: " + e.getMessage());
+        } finally {
+            warmUpWriter.close(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+        }
+    }
+    
+    /**
+     * 예열용 도구 결과를 만듭니다. (포털을 호출하지 않음)
+     * 
+     * 실제 도구 결과와 같은 모양(content[].text에 PortalJsonBody)으로 만들어,
+     * 포털 JSON 본문을 그대로 문자열로 쓰는 직렬화 경로를 예열합니다.
+     */
+    private static McpResponse warmUpToolResult(String id) throws IOException {
+        PortalJsonBody body = PortalJsonBody.of(WARMUP_PORTAL_BODY.getBytes(StandardCharsets.UTF_8));
+        return new McpResponse(id, Map.of("content", List.of(Map.of("type", "text", "text", body))));
+    }
+    
+    /**
+     * 대기 큐에서 요청을 꺼내 비동기 처리를 시작합니다.
+     * 동시 처리 요청 수 제한(Semaphore)은 이 스레드에서 적용되므로 stdin 읽기를 막지 않으며,
+     * 허가는 요청 처리가 완료될 때 반환됩니다.
+     */
+    private void runDispatcher() {
+        try {
+            while (true) {
+                Supplier<CompletableFuture<Void>> task = pending.take();
+                if (task == END_OF_INPUT) {
+                    return;
+                }
+                inFlightPermits.acquire();
+                CompletableFuture<Void> completion;
+                try {
+                    completion = task.get();
+                } catch (RuntimeException e) {
+                    LogUtil.errPrintln("요청 처리 시작 실패: " + e.getMessage());
+                    completion = CompletableFuture.completedFuture(null);
+                }
+                completion.whenComplete((ignored, e) -> inFlightPermits.release());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * 대기 큐에 남은 요청까지 모두 시작한 뒤 dispatcher 스레드를 종료합니다.
+     */
+    private void stopDispatcher(Thread dispatcher) {
+        try {
+            pending.put(END_OF_INPUT);
+            dispatcher.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * 요청 하나를 처리하고, 완료되면 응답을 전송합니다.
+     * 
+     * @return 응답 전송까지 끝나면 완료되는 Future
+     */
+    private CompletableFuture<Void> dispatch(McpRequest request, RequestCancellation cancellation) {
+        if (cancellation != null && cancellation.isCancelled()) {
+            // 대기 중에 취소된 요청은 처리하지 않음
+            inFlight.complete(cancellation);
+            return CompletableFuture.completedFuture(null);
+        }
+        return mcpServer.handleRequestAsync(request, cancellation).handle((response, e) -> {
+            try {
+                if (e != null) {
+                    // 오류 발생 시 오류 응답 전송
+                    LogUtil.errPrintln("오류 발생: " + e.getMessage());
+                    e.printStackTrace();
+                    sendError(idOf(request), e);
+                } else if (McpServerWithPortalWrapper.isReplyRequired(request, response)) {
+                    // Notification(id가 null)이거나 취소된 요청인 경우 응답을 보내지 않음
+                    sendResponse(response);
+                }
+            } finally {
+                inFlight.complete(cancellation);
+            }
+            return null;
+        });
+    }
+    
+    /**
+     * batch 요청의 항목을 하나씩 대기 큐에 넣고, 모든 항목이 끝나면 응답 배열 하나를 전송합니다.
+     * 항목마다 처리 허가를 하나씩 사용하므로 batch도 MCP_STDIO_MAX_IN_FLIGHT 제한을 따릅니다.
+     * 모든 항목이 Notification이면 아무것도 전송하지 않습니다.
+     * 빈 batch나 MCP_STDIO_MAX_BATCH_SIZE를 넘는 batch는 처리하지 않고 Invalid Request 오류로 응답합니다.
+     */
+    private void enqueueBatch(List<McpRequest> batch) throws InterruptedException {
+        List<McpResponse> invalid = McpServerWithPortalWrapper.validateBatch(batch, maxBatchSize);
+        if (invalid != null) {
+            writer.send(invalid);
+            return;
+        }
+        // 취소 알림 처리와 처리 중 목록 등록은 수신 시점에 모든 항목에 대해 수행
+        List<Supplier<CompletableFuture<McpResponse>>> entries = new ArrayList<>(batch.size());
+        List<CompletableFuture<McpResponse>> results = new ArrayList<>(batch.size());
+        for (McpRequest request : batch) {
+            entries.add(mcpServer.prepareBatchEntry(request, inFlight));
+            results.add(new CompletableFuture<>());
+        }
+        McpServerWithPortalWrapper.collectBatch(batch, results).thenAccept(responses -> {
+            if (!responses.isEmpty()) {
+                writer.send(responses);
+            }
+        });
+        for (int i = 0; i < entries.size(); i++) {
+            Supplier<CompletableFuture<McpResponse>> entry = entries.get(i);
+            CompletableFuture<McpResponse> result = results.get(i);
+            pending.put(() -> entry.get().thenAccept(result::complete));
+        }
+    }
+    
+    private static String idOf(McpRequest request) {
+        return request != null ? request.getId() : null;
+    }
+    
+    /**
+     * 응답을 표준 출력으로 전송합니다.
+     * 실제 쓰기는 StdioResponseWriter의 전용 스레드가 수행하므로 메시지가 섞이지 않습니다.
+     */
+    private void sendResponse(McpResponse response) {
+        writer.send(response);
+    }
+    
+    /**
+     * 오류 응답을 전송합니다.
+     */
+    private void sendError(String id, Throwable error) {
+        Throwable e = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        sendResponse(new McpResponse(
+            id,
+            new McpError(
+                McpError.ErrorCode.INTERNAL_ERROR,
+                "Internal error: " + e.getMessage()
+            )
+        ));
+    }
+    
+    /**
+     * stdin이 닫힌 뒤 처리 중인 요청의 응답이 모두 전송될 때까지 기다립니다.
+     */
+    private void awaitInFlightRequests() {
+        try {
+            // 모든 허가가 반환되면 처리 중인 요청이 없음
+            if (!inFlightPermits.tryAcquire(maxInFlight, SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LogUtil.errPrintln("처리 중인 요청이 종료 대기 시간 내에 끝나지 않았습니다.");
+                inFlight.cancelAll("서버 종료");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
     
@@ -0,0 +1,129 @@
+package com.example.mcpserver.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * stdio 입력 스트림 리더
+ *
+ * System.in 바이트 스트림을 직접 읽어 줄바꿈('\n') 단위로 메시지를 구분하고,
+ * 각 메시지를 읽기 버퍼 위에서 바로 JsonParser로 파싱하여 McpRequest로 바인딩합니다.
+ * (McpMessageParser 사용, JSON-RPC batch 배열 포함)
+ * 메시지마다 String이나 JsonNode 트리를 만들지 않습니다.
+ *
+ * MCP stdio 전송 규격상 메시지는 한 줄로 구분되므로, 잘못된 JSON이 들어와도
+ * 해당 줄만 버리고 다음 메시지부터 정상적으로 이어서 읽을 수 있습니다.
+ *
+ * 단일 스레드(stdin 읽기 스레드)에서만 사용합니다.
+ */
+class StdioMessageReader {
+
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    private final InputStream in;
+    private final McpMessageParser messageParser;
+
+    // 아직 처리하지 않은 데이터는 buffer[start, end) 구간에 있습니다.
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int start;
+    private int end;
+    // 줄바꿈 탐색을 이어서 시작할 위치 (같은 바이트를 다시 검사하지 않기 위함)
+    private int scanFrom;
+    private boolean eof;
+    // 현재 메시지(한 줄)의 위치 buffer[frameOffset, frameEnd) - nextFrame()이 설정
+    private int frameOffset;
+    private int frameEnd;
+
+    StdioMessageReader(InputStream in, ObjectMapper objectMapper) {
+        this.in = in;
+        this.messageParser = new McpMessageParser(objectMapper);
+    }
+
+    /**
+     * 다음 메시지를 읽습니다. 빈 줄은 건너뜁니다.
+     *
+     * @return 메시지 (단일 요청 또는 batch), 입력이 끝났으면 null
+     * @throws com.fasterxml.jackson.core.JsonProcessingException 메시지 형식이 잘못된 경우 (해당 줄은 이미 소비됨)
+     * @throws IOException 입력 스트림 오류
+     */
+    McpMessageParser.Message readMessage() throws IOException {
+        while (true) {
+            if (!nextFrame()) {
+                return null;
+            }
+            int frameLength = frameEnd - frameOffset;
+            if (isBlank(frameOffset, frameLength)) {
+                continue;
+            }
+            return messageParser.parse(buffer, frameOffset, frameLength);
+        }
+    }
+
+    /**
+     * 다음 줄을 찾아 frameOffset/frameEnd를 설정합니다.
+     *
+     * @return 프레임이 있으면 true, 입력이 끝났으면 false
+     */
+    private boolean nextFrame() throws IOException {
+        while (true) {
+            for (int i = scanFrom; i < end; i++) {
+                if (buffer[i] == '\n') {
+                    frameOffset = start;
+                    frameEnd = i;
+                    start = i + 1;
+                    scanFrom = start;
+                    return true;
+                }
+            }
+            scanFrom = end;
+
+            if (eof) {
+                if (start == end) {
+                    return false;
+                }
+                // 마지막 줄에 줄바꿈이 없는 경우
+                frameOffset = start;
+                frameEnd = end;
+                start = end;
+                return true;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * 입력 스트림에서 데이터를 더 읽습니다.
+     * 처리 중인 줄을 버퍼 앞으로 옮기고, 한 줄이 버퍼보다 크면 버퍼를 늘립니다.
+     */
+    private void fill() throws IOException {
+        if (start > 0) {
+            int remaining = end - start;
+            System.arraycopy(buffer, start, buffer, 0, remaining);
+            scanFrom -= start;
+            end = remaining;
+            start = 0;
+        }
+        if (end == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = in.read(buffer, end, buffer.length - end);
+        if (read < 0) {
+            eof = true;
+        } else {
+            end += read;
+        }
+    }
+
+    private boolean isBlank(int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            byte b = buffer[i];
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
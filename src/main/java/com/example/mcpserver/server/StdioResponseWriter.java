@@ -0,0 +1,276 @@
+package com.example.mcpserver.server;
+
+import com.example.mcpserver.protocol.McpError;
+import com.example.mcpserver.protocol.McpRequest;
+import com.example.mcpserver.protocol.McpResponse;
+import com.example.mcpserver.util.LogUtil;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * stdio 응답 전송 단계
+ *
+ * 여러 요청 처리 스레드가 만든 응답을 크기 제한이 있는 큐에 넣고,
+ * 전용 writer 스레드 하나가 큐를 비우면서 stdout에 씁니다.
+ *
+ * - stdout에 쓰는 스레드가 하나뿐이므로 메시지가 서로 섞이지 않습니다.
+ * - 재사용하는 JsonGenerator로 McpResponse(또는 batch 응답 배열)를 재사용 버퍼에 직렬화합니다. (중간 String 없음)
+ *   직렬화가 끝난 메시지만 stdout에 쓰므로, 도중에 실패해도 불완전한 JSON이 나가지 않습니다.
+ * - 큐에 여러 응답이 쌓여 있으면 모두 쓴 뒤 한 번만 flush합니다.
+ * - 큐가 가득 차면 send()가 대기하여 요청 처리 쪽에 backpressure를 겁니다.
+ *   stdout 쓰기가 실패해 writer가 종료되면 더 이상 대기하지 않고 응답을 버립니다.
+ */
+class StdioResponseWriter {
+
+    // 한 번에 꺼내서 쓰는 최대 응답 수 (이 개수마다 최소 한 번은 flush)
+    private static final int MAX_BATCH_SIZE = 64;
+
+    // 종료 신호 (큐에 넣으면 writer 스레드가 남은 응답을 쓰고 종료)
+    private static final Object SHUTDOWN = new Object();
+
+    // 큐가 가득 찼을 때 writer 종료 여부를 다시 확인하는 주기
+    private static final long ENQUEUE_RETRY_MILLIS = 100;
+
+    // 큰 응답으로 커진 직렬화 버퍼는 이 크기를 넘으면 다시 만듦
+    private static final int MAX_RETAINED_BUFFER_BYTES = 1024 * 1024;
+
+    private final OutputStream out;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter responseWriter;
+    private final BlockingQueue<Object> queue;
+    private final Thread writerThread;
+    private MessageBuffer buffer = new MessageBuffer();
+    private JsonGenerator generator;
+    // writer 스레드가 종료되었으면 true (이후 응답은 큐에 넣지 않고 버림)
+    private volatile boolean stopped;
+
+    StdioResponseWriter(OutputStream out, ObjectMapper objectMapper, int capacity) {
+        this.out = out;
+        this.objectMapper = objectMapper;
+        // flush는 배치 단위로 직접 수행
+        this.responseWriter = objectMapper.writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writerThread = new Thread(this::run, "mcp-stdio-writer");
+        this.writerThread.setDaemon(true);
+    }
+
+    /**
+     * writer 스레드를 시작합니다.
+     */
+    void start() throws IOException {
+        this.generator = createGenerator();
+        writerThread.start();
+    }
+
+    /**
+     * 응답을 전송 큐에 넣습니다. 큐가 가득 차면 자리가 날 때까지 대기합니다.
+     *
+     * @param response 전송할 응답
+     */
+    void send(McpResponse response) {
+        enqueue(response);
+    }
+
+    /**
+     * batch 응답 배열을 전송 큐에 넣습니다. 배열 전체가 한 줄(메시지 하나)로 전송됩니다.
+     *
+     * @param responses 전송할 응답 목록
+     */
+    void send(List<McpResponse> responses) {
+        enqueue(responses);
+    }
+
+    /**
+     * 서버 → 클라이언트 알림(Notification)을 전송 큐에 넣습니다.
+     *
+     * @param notification 전송할 알림 (id 없음)
+     */
+    void send(McpRequest notification) {
+        enqueue(notification);
+    }
+
+    private boolean enqueue(Object message) {
+        try {
+            // writer가 죽으면 큐를 비울 스레드가 없으므로, 무한정 대기하지 않고 주기적으로 종료 여부를 확인
+            while (!stopped) {
+                if (queue.offer(message, ENQUEUE_RETRY_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+            if (message != SHUTDOWN) {
+                LogUtil.debugPrintln("[DEBUG] 응답 writer가 종료되어 응답을 버립니다: id=" + idOf(message));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LogUtil.errPrintln("응답 전송 대기 중 인터럽트 발생, 응답을 버립니다: id=" + idOf(message));
+        }
+        return false;
+    }
+
+    /**
+     * 큐에 남은 응답을 모두 쓴 뒤 writer 스레드를 종료합니다.
+     *
+     * @param timeoutMillis 종료 대기 시간 (밀리초)
+     */
+    void close(long timeoutMillis) {
+        if (!enqueue(SHUTDOWN)) {
+            return;
+        }
+        try {
+            writerThread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            LogUtil.errPrintln("응답 writer가 종료 대기 시간 내에 끝나지 않았습니다.");
+        }
+    }
+
+    private void run() {
+        List<Object> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        boolean running = true;
+        try {
+            while (running) {
+                try {
+                    batch.add(queue.take());
+                    queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+                    for (Object message : batch) {
+                        if (message == SHUTDOWN) {
+                            running = false;
+                        } else {
+                            write(message);
+                        }
+                    }
+                    // 준비된 응답을 모두 쓴 뒤 한 번만 flush
+                    flushBuffer();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                } catch (IOException e) {
+                    // stdout이 닫힌 경우 (클라이언트 종료) - 더 이상 쓸 수 없음
+                    LogUtil.errPrintln("stdout 쓰기 실패, writer 종료: " + e.getMessage());
+                    running = false;
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            // 어떤 이유로 끝나든 send / close가 기다리지 않도록 표시
+            stopped = true;
+            // 대기 중이던 응답은 더 이상 쓸 수 없음
+            queue.clear();
+        }
+    }
+
+    /**
+     * 메시지 하나를 버퍼에 직렬화합니다. (한 줄 = 메시지 하나)
+     * 직렬화에 실패하면 같은 id의 오류 응답으로 대신하고, 그것도 실패하면 메시지를 버립니다. (예외를 던지지 않음)
+     */
+    private void write(Object message) {
+        int mark = buffer.size();
+        try {
+            writeLine(message);
+        } catch (IOException | RuntimeException e) {
+            // 버퍼(메모리)에 쓰므로 여기서 나는 오류는 직렬화 오류이며, 실패하면 generator 상태가 깨지므로
+            // 이 메시지의 부분 출력을 버리고 generator를 새로 만든 뒤 오류 응답을 보냅니다.
+            LogUtil.errPrintln("응답 직렬화 실패: id=" + idOf(message) + ", " + e.getMessage());
+            resetTo(mark);
+            try {
+                writeLine(new McpResponse(
+                    idOf(message),
+                    new McpError(McpError.ErrorCode.INTERNAL_ERROR, "Response serialization failed")
+                ));
+            } catch (IOException | RuntimeException fallbackError) {
+                LogUtil.errPrintln("오류 응답 직렬화 실패, 응답을 버립니다: id=" + idOf(message));
+                resetTo(mark);
+            }
+        }
+    }
+
+    private void writeLine(Object message) throws IOException {
+        responseWriter.writeValue(generator, message);
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+
+    /**
+     * 버퍼를 mark 위치로 되돌리고 generator를 새로 만듭니다.
+     */
+    private void resetTo(int mark) {
+        buffer.truncate(mark);
+        generator = createGenerator();
+    }
+
+    /**
+     * 버퍼에 모인 메시지를 stdout에 쓰고 flush합니다.
+     */
+    private void flushBuffer() throws IOException {
+        if (buffer.size() == 0) {
+            return;
+        }
+        buffer.writeTo(out);
+        out.flush();
+        // PrintStream(System.out)은 IOException을 던지지 않으므로 오류 상태를 직접 확인
+        if (out instanceof PrintStream && ((PrintStream) out).checkError()) {
+            throw new IOException("stdout 쓰기 오류");
+        }
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_BYTES) {
+            buffer = new MessageBuffer();
+            generator = createGenerator();
+        } else {
+            buffer.reset();
+        }
+    }
+
+    private static String idOf(Object message) {
+        return message instanceof McpResponse ? ((McpResponse) message).getId() : null;
+    }
+
+    private JsonGenerator createGenerator() {
+        JsonGenerator created;
+        try {
+            created = objectMapper.getFactory().createGenerator(buffer, JsonEncoding.UTF8);
+        } catch (IOException e) {
+            // 메모리 버퍼라 실제로는 발생하지 않음
+            throw new UncheckedIOException(e);
+        }
+        created.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // 메시지 구분은 writeRaw('\n')로 직접 처리
+        created.setRootValueSeparator(null);
+        return created;
+    }
+
+    /**
+     * 직렬화 버퍼 (실패한 메시지의 부분 출력을 잘라낼 수 있도록 확장)
+     */
+    private static final class MessageBuffer extends ByteArrayOutputStream {
+
+        MessageBuffer() {
+            super(8192);
+        }
+
+        void truncate(int size) {
+            count = size;
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+}
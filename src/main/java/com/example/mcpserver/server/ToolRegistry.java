@@ -0,0 +1,188 @@
+package com.example.mcpserver.server;
+
+import com.example.mcpserver.protocol.Tool;
+import com.example.mcpserver.server.McpServerWithPortalWrapper.PortalApiMapping;
+import com.example.mcpserver.util.LogUtil;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 도구 레지스트리
+ *
+ * 등록된 도구와 포털 API 매핑을 관리합니다.
+ * 변경(등록/해제)될 때마다 버전이 증가한 불변 스냅샷을 새로 만들고,
+ * 조회는 잠금 없이 현재 스냅샷을 읽습니다.
+ *
+ * 도구의 inputSchema는 등록 시 ArgumentValidator로 컴파일하여 스냅샷에 함께 보관합니다.
+ *
+ * tools/list 결과는 스냅샷마다 한 번만 JSON으로 인코딩하여 UTF-8 바이트로 보관하고,
+ * 이후 요청에서는 다시 직렬화하지 않고 그대로 출력합니다.
+ */
+public class ToolRegistry {
+
+    /**
+     * 도구 목록 변경 리스너 (notifications/tools/list_changed 전송용)
+     */
+    public interface ListChangedListener {
+        void toolsListChanged(long version);
+    }
+
+    private final ObjectMapper objectMapper;
+    // 변경은 synchronized 메서드에서만 수행 (등록 순서 유지)
+    private final Map<String, Tool> tools = new LinkedHashMap<>();
+    private final Map<String, PortalApiMapping> apiMappings = new LinkedHashMap<>();
+    private final Map<String, ArgumentValidator> validators = new LinkedHashMap<>();
+    private final List<ListChangedListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Snapshot snapshot;
+
+    public ToolRegistry(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.snapshot = new Snapshot(0, Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    /**
+     * 도구를 등록합니다. 같은 이름의 도구가 있으면 교체합니다.
+     *
+     * @param tool MCP 도구 정의
+     * @param apiMapping 포털 REST API 매핑 정보
+     * @throws IllegalArgumentException inputSchema를 컴파일할 수 없는 경우
+     */
+    public void register(Tool tool, PortalApiMapping apiMapping) {
+        ArgumentValidator validator = ArgumentValidator.compile(tool.getInputSchema());
+        long version;
+        synchronized (this) {
+            tools.put(tool.getName(), tool);
+            apiMappings.put(tool.getName(), apiMapping);
+            validators.put(tool.getName(), validator);
+            version = publish();
+        }
+        notifyListeners(version);
+    }
+
+    /**
+     * 도구 등록을 해제합니다.
+     *
+     * @param toolName 도구 이름
+     * @return 해제한 도구가 있으면 true
+     */
+    public boolean unregister(String toolName) {
+        long version;
+        synchronized (this) {
+            if (tools.remove(toolName) == null) {
+                return false;
+            }
+            apiMappings.remove(toolName);
+            validators.remove(toolName);
+            version = publish();
+        }
+        notifyListeners(version);
+        return true;
+    }
+
+    /**
+     * 현재 스냅샷을 반환합니다.
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 도구 목록 변경 리스너를 등록합니다.
+     */
+    public void addListChangedListener(ListChangedListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 현재 맵 상태로 새 스냅샷을 만들어 게시합니다. (synchronized 블록 안에서 호출)
+     */
+    private long publish() {
+        long version = snapshot.getVersion() + 1;
+        snapshot = new Snapshot(version, new LinkedHashMap<>(tools), new LinkedHashMap<>(apiMappings),
+            new LinkedHashMap<>(validators));
+        return version;
+    }
+
+    private void notifyListeners(long version) {
+        for (ListChangedListener listener : listeners) {
+            try {
+                listener.toolsListChanged(version);
+            } catch (Exception e) {
+                LogUtil.errPrintln("도구 목록 변경 알림 실패: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 도구 카탈로그의 불변 스냅샷
+     */
+    public class Snapshot {
+        private final long version;
+        private final Map<String, Tool> tools;
+        private final Map<String, PortalApiMapping> apiMappings;
+        private final Map<String, ArgumentValidator> validators;
+        // tools/list 결과 ({"tools":[...]}) - 처음 요청될 때 한 번만 인코딩
+        private volatile RawValue toolsListResult;
+
+        private Snapshot(long version, Map<String, Tool> tools, Map<String, PortalApiMapping> apiMappings,
+                         Map<String, ArgumentValidator> validators) {
+            this.version = version;
+            this.tools = Collections.unmodifiableMap(tools);
+            this.apiMappings = Collections.unmodifiableMap(apiMappings);
+            this.validators = Collections.unmodifiableMap(validators);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public Map<String, Tool> getTools() {
+            return tools;
+        }
+
+        public Tool getTool(String toolName) {
+            return toolName != null ? tools.get(toolName) : null;
+        }
+
+        public PortalApiMapping getApiMapping(String toolName) {
+            return toolName != null ? apiMappings.get(toolName) : null;
+        }
+
+        public ArgumentValidator getValidator(String toolName) {
+            return toolName != null ? validators.get(toolName) : null;
+        }
+
+        /**
+         * 미리 인코딩된 tools/list 결과를 반환합니다.
+         * McpResponse의 result로 넣으면 Jackson이 다시 직렬화하지 않고 그대로 출력합니다.
+         */
+        public RawValue getToolsListResult() {
+            RawValue result = toolsListResult;
+            if (result == null) {
+                result = encodeToolsList();
+                toolsListResult = result;
+            }
+            return result;
+        }
+
+        private RawValue encodeToolsList() {
+            try {
+                Map<String, Object> result = Map.of("tools", new ArrayList<>(tools.values()));
+                SerializedString encoded = new SerializedString(objectMapper.writeValueAsString(result));
+                // UTF-8 바이트를 미리 만들어 캐시 (SerializedString 내부 보관)
+                encoded.asUnquotedUTF8();
+                return new RawValue(encoded);
+            } catch (Exception e) {
+                throw new IllegalStateException("tools/list 인코딩 실패: " + e.getMessage(), e);
+            }
+        }
+    }
+}
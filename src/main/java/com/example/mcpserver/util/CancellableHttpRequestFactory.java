@@ -0,0 +1,28 @@
+package com.example.mcpserver.util;
+
+import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+/**
+ * 취소 가능한 HttpComponents 요청 팩토리
+ *
+ * RestTemplate이 만드는 HTTP 요청을 현재 스레드의 RequestCancellation에 연결하여,
+ * MCP 요청이 취소(notifications/cancelled)되면 진행 중인 포털 HTTP 교환을 중단할 수 있게 합니다.
+ */
+public class CancellableHttpRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+    public CancellableHttpRequestFactory(HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    @Override
+    protected void postProcessHttpRequest(ClassicHttpRequest request) {
+        super.postProcessHttpRequest(request);
+        RequestCancellation cancellation = RequestCancellation.current();
+        if (cancellation != null && request instanceof Cancellable) {
+            cancellation.attach((Cancellable) request);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.mcpserver.util;
+
+/**
+ * 환경 변수 읽기 유틸리티
+ *
+ * stdio 모드는 Spring Boot 컨텍스트를 시작하지 않으므로 application.properties를 사용할 수 없습니다.
+ * 대신 MCP 클라이언트 설정(mcp.json의 env)으로 전달된 환경 변수를 읽습니다.
+ */
+public class EnvUtil {
+
+    /**
+     * 문자열 환경 변수를 읽습니다.
+     *
+     * @param name 환경 변수 이름
+     * @param defaultValue 값이 없을 때 사용할 기본값
+     * @return 환경 변수 값 또는 기본값
+     */
+    public static String getString(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return (value == null || value.trim().isEmpty()) ? defaultValue : value.trim();
+    }
+
+    /**
+     * 정수 환경 변수를 읽습니다.
+     * 형식이 잘못된 경우 경고 로그를 남기고 기본값을 사용합니다.
+     *
+     * @param name 환경 변수 이름
+     * @param defaultValue 값이 없거나 잘못된 경우 사용할 기본값
+     * @return 환경 변수 값 또는 기본값
+     */
+    public static int getInt(String name, int defaultValue) {
+        String value = getString(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            LogUtil.errPrintln("환경 변수 " + name + " 값이 올바르지 않습니다: " + value + " (기본값 " + defaultValue + " 사용)");
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.mcpserver.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 요청 처리용 Executor 생성 유틸리티
+ *
+ * Java 21 이상에서 실행되면 가상 스레드(virtual thread) Executor를 사용하고,
+ * 그 이하(Java 17)에서는 데몬 플랫폼 스레드 풀로 대체합니다.
+ * 빌드 타깃이 Java 17이므로 가상 스레드 API는 리플렉션으로 호출합니다.
+ *
+ * 동시 실행 개수 제한은 호출하는 쪽(Semaphore 등)에서 담당합니다.
+ */
+public class ExecutorUtil {
+
+    /**
+     * 요청 처리용 Executor를 생성합니다.
+     *
+     * @param threadNamePrefix 플랫폼 스레드 사용 시 스레드 이름 접두사
+     * @return 가상 스레드 또는 플랫폼 스레드 기반 ExecutorService
+     */
+    public static ExecutorService newRequestExecutor(String threadNamePrefix) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService executor = (ExecutorService) factory.invoke(null);
+            LogUtil.debugPrintln("[DEBUG] 가상 스레드 Executor 사용: " + threadNamePrefix);
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            // Java 21 미만: 플랫폼 스레드 사용
+            AtomicInteger sequence = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, threadNamePrefix + "-" + sequence.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
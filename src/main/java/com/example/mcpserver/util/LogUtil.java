@@ -6,11 +6,16 @@ package com.example.mcpserver.util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.function.Supplier;
+
 /**
  * 로그 출력 유틸리티
  * 
  * stdio 모드에서는 System.out(JSON 응답)과 System.err(로그)를 분리해야 하므로,
  * slf4j를 사용하되 System.err로 출력되도록 설정합니다. (logback.xml 설정)
+ * 
+ * 요청마다 호출되는 곳에서 문자열 연결/직렬화 비용이 큰 메시지는
+ * Supplier를 받는 메서드를 사용하세요. 해당 레벨이 꺼져 있으면 메시지를 만들지 않습니다.
  */
 public class LogUtil {
     
@@ -73,6 +78,25 @@ public class LogUtil {
         logger.debug(message);
     }
     
+    /**
+     * 디버그 메시지를 출력합니다. 디버그 레벨이 꺼져 있으면 메시지를 만들지 않습니다.
+     * 
+     * @param message 출력할 메시지를 만드는 함수
+     */
+    public static void debugPrintln(Supplier<String> message) {
+        if (logger.isDebugEnabled()) {
+            logger.debug(message.get());
+        }
+    }
+    
+    /**
+     * 디버그 레벨 로그가 켜져 있는지 확인합니다.
+     * 여러 줄의 디버그 로그를 한 번에 건너뛸 때 사용합니다.
+     */
+    public static boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+    
     /**
      * 디버그 메시지를 출력합니다.
      * 
@@ -0,0 +1,95 @@
+package com.example.mcpserver.util;
+
+import org.apache.hc.core5.concurrent.Cancellable;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 처리 중인 MCP 요청 하나의 취소 핸들
+ *
+ * 요청을 처리하는 스레드에 바인딩되며(ThreadLocal), 포털 HTTP 요청이 만들어질 때
+ * CancellableHttpRequestFactory가 해당 HTTP 요청을 이 핸들에 연결합니다.
+ * cancel()을 호출하면 진행 중인 HTTP 교환이 중단(abort)되어 커넥션이 풀로 반환됩니다.
+ */
+public class RequestCancellation {
+
+    private static final ThreadLocal<RequestCancellation> CURRENT = new ThreadLocal<>();
+
+    private final String requestId;
+    private final AtomicReference<Cancellable> resource = new AtomicReference<>();
+    private volatile boolean cancelled;
+    private volatile String reason;
+
+    public RequestCancellation(String requestId) {
+        this.requestId = requestId;
+    }
+
+    /**
+     * 현재 스레드에 바인딩된 취소 핸들을 반환합니다.
+     *
+     * @return 취소 핸들, 없으면 null
+     */
+    public static RequestCancellation current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 이 핸들을 현재 스레드에 바인딩한 상태로 작업을 실행합니다.
+     *
+     * @param task 실행할 작업
+     * @return 작업 결과
+     */
+    public <T> T runWith(Supplier<T> task) {
+        RequestCancellation previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * 진행 중인 작업(HTTP 요청 등)을 연결합니다.
+     * 이미 취소된 상태이면 즉시 취소합니다.
+     *
+     * @param cancellable 취소 가능한 작업
+     */
+    public void attach(Cancellable cancellable) {
+        resource.set(cancellable);
+        if (cancelled) {
+            cancellable.cancel();
+        }
+    }
+
+    /**
+     * 요청을 취소합니다. 연결된 HTTP 요청이 있으면 중단합니다.
+     *
+     * @param reason 취소 사유 (선택적)
+     */
+    public void cancel(String reason) {
+        this.reason = reason;
+        this.cancelled = true;
+        Cancellable current = resource.get();
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
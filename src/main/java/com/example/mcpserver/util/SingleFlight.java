@@ -0,0 +1,110 @@
+package com.example.mcpserver.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 동일 작업 중복 실행 방지 (single-flight)
+ *
+ * 같은 키로 동시에 들어온 호출 중 첫 번째(leader)만 실제로 실행하고,
+ * 나머지(follower)는 leader의 결과를 함께 받습니다. 실행이 끝나면 키는 바로 제거되므로
+ * 결과를 보관하는 캐시가 아니라, 동시에 진행 중인 호출만 합칩니다.
+ *
+ * - leader의 MCP 요청이 취소되어 실패한 경우, follower는 직접 다시 실행합니다.
+ * - follower 자신의 요청이 취소되면 leader를 기다리지 않고 즉시 취소됩니다.
+ *
+ * @param <V> 결과 타입
+ */
+public class SingleFlight<V> {
+
+    private final ConcurrentMap<String, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder sharedCalls = new LongAdder();
+
+    /**
+     * 작업을 시작하거나, 같은 키로 진행 중인 작업이 있으면 그 결과 Future를 반환합니다.
+     *
+     * @param key 작업 키
+     * @param task 비동기 작업
+     * @return 작업 결과 Future
+     */
+    public CompletableFuture<V> execute(String key, Supplier<CompletableFuture<V>> task) {
+        Flight<V> flight = new Flight<>(RequestCancellation.current());
+        Flight<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return follow(existing, task);
+        }
+
+        // leader: 직접 실행하고 결과를 공유
+        CompletableFuture<V> result = start(task);
+        result.whenComplete((value, e) -> {
+            // 완료 후 들어오는 호출은 새로 실행되도록 먼저 키를 제거
+            inFlight.remove(key, flight);
+            if (e != null) {
+                flight.future.completeExceptionally(e);
+            } else {
+                flight.future.complete(value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * follower: leader의 결과를 기다립니다.
+     */
+    private CompletableFuture<V> follow(Flight<V> flight, Supplier<CompletableFuture<V>> task) {
+        sharedCalls.increment();
+        // 자신의 요청이 취소되면 leader와 관계없이 대기를 끝낼 수 있도록 별도 future로 대기
+        CompletableFuture<V> waiting = new CompletableFuture<>();
+        RequestCancellation cancellation = RequestCancellation.current();
+        if (cancellation != null) {
+            cancellation.attach(() -> waiting.cancel(false));
+        }
+        flight.future.whenComplete((value, e) -> {
+            if (e == null) {
+                waiting.complete(value);
+            } else if (flight.leader != null && flight.leader.isCancelled() && !waiting.isDone()) {
+                // leader가 취소된 경우 follower는 자신의 취소 핸들로 직접 실행
+                CompletableFuture<V> retry = cancellation != null
+                    ? cancellation.runWith(() -> start(task))
+                    : start(task);
+                retry.whenComplete((retryValue, retryError) -> {
+                    if (retryError != null) {
+                        waiting.completeExceptionally(retryError);
+                    } else {
+                        waiting.complete(retryValue);
+                    }
+                });
+            } else {
+                waiting.completeExceptionally(e);
+            }
+        });
+        return waiting;
+    }
+
+    private static <V> CompletableFuture<V> start(Supplier<CompletableFuture<V>> task) {
+        try {
+            return task.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * 진행 중인 호출에 합류하여 결과를 공유받은 횟수
+     */
+    public long getSharedCalls() {
+        return sharedCalls.sum();
+    }
+
+    private static class Flight<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final RequestCancellation leader;
+
+        private Flight(RequestCancellation leader) {
+            this.leader = leader;
+        }
+    }
+}
@@ -1,13 +1,23 @@
 package com.example.mcpserver.util;
 
+import com.example.mcpserver.portal.ConnectionPoolMonitor;
+import com.example.mcpserver.portal.GzipRequestInterceptor;
+import com.example.mcpserver.portal.PortalHttpClientSettings;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
-import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
 import org.apache.hc.client5.http.ssl.NoopHostnameVerifier;
 import org.apache.hc.core5.ssl.SSLContextBuilder;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
@@ -23,13 +33,98 @@ import java.security.cert.X509Certificate;
 import java.util.Arrays;
 
 /**
- * SSL 인증서 검증을 우회하는 RestTemplate을 생성하는 팩토리
+ * SSL 인증서 검증을 우회하는 RestTemplate / 비동기 HTTP 클라이언트를 생성하는 팩토리
  * 
  * localhost의 자체 서명 인증서나 만료된 인증서를 허용하기 위해 사용합니다.
  * stdio 모드와 SSE 모드에서 공통으로 사용됩니다.
  */
 public class SslByPassUtil {
     
+    // 동기 / 비동기 클라이언트가 같은 SSLContext를 사용하여 TLS 세션 캐시를 공유 (세션 재개로 핸드셰이크 비용 절감)
+    private static SSLContext trustAllSslContext;
+    
+    /**
+     * SSL 인증서 검증을 우회하는 비동기 HTTP 클라이언트를 생성합니다. (시작된 상태로 반환)
+     * 
+     * 요청마다 스레드를 점유하지 않으므로 느린 포털 호출이 많아도 스레드 수가 늘지 않습니다.
+     * 
+     * @return SSL 우회가 설정된 비동기 HTTP 클라이언트
+     */
+    public static CloseableHttpAsyncClient createAsyncHttpClientWithSslBypass() {
+        return createAsyncHttpClientWithSslBypass(PortalHttpClientSettings.defaults(), null);
+    }
+    
+    /**
+     * SSL 인증서 검증을 우회하는 비동기 HTTP 클라이언트를 생성합니다. (시작된 상태로 반환)
+     * 
+     * @param settings 연결 풀 / 타임아웃 설정
+     * @param poolMonitor 연결 풀 통계 등록 대상 (null 가능)
+     * @return SSL 우회가 설정된 비동기 HTTP 클라이언트
+     */
+    public static CloseableHttpAsyncClient createAsyncHttpClientWithSslBypass(
+            PortalHttpClientSettings settings, ConnectionPoolMonitor poolMonitor) {
+        PoolingAsyncClientConnectionManagerBuilder connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(settings.getMaxTotal())
+            .setMaxConnPerRoute(settings.getMaxPerRoute())
+            .setDefaultConnectionConfig(settings.toConnectionConfig());
+        try {
+            connectionManager.setTlsStrategy(new DefaultClientTlsStrategy(
+                createTrustAllSslContext(),
+                NoopHostnameVerifier.INSTANCE // 모든 호스트명 허용
+            ));
+        } catch (NoSuchAlgorithmException | KeyManagementException | KeyStoreException e) {
+            // SSL 설정 실패 시 기본 TLS 설정 사용
+            LogUtil.errPrintln("SSL 설정 실패, 기본 TLS 설정 사용: " + e.getMessage());
+        }
+        
+        PoolingAsyncClientConnectionManager pool = connectionManager.build();
+        if (poolMonitor != null) {
+            poolMonitor.register("async", pool);
+        }
+        
+        CloseableHttpAsyncClient httpClient = HttpAsyncClients.custom()
+            .setConnectionManager(pool)
+            .setDefaultRequestConfig(settings.toRequestConfig())
+            .evictExpiredConnections()
+            .evictIdleConnections(settings.getIdleEviction())
+            // 재시도는 PortalCallPolicy가 재시도 예산 / 회로 차단과 함께 담당 (클라이언트 기본 재시도는 사용 안 함)
+            .disableAutomaticRetries()
+            .build();
+        httpClient.start();
+        return httpClient;
+    }
+    
+    /**
+     * 모든 인증서를 신뢰하는 SSLContext를 반환합니다. (처음 호출 시 생성하여 공유)
+     */
+    private static synchronized SSLContext createTrustAllSslContext()
+            throws NoSuchAlgorithmException, KeyManagementException, KeyStoreException {
+        if (trustAllSslContext != null) {
+            return trustAllSslContext;
+        }
+        // 모든 인증서를 신뢰하는 TrustManager 생성
+        TrustManager[] trustAllCerts = new TrustManager[] {
+            new X509TrustManager() {
+                public X509Certificate[] getAcceptedIssuers() {
+                    return null;
+                }
+                public void checkClientTrusted(X509Certificate[] certs, String authType) {
+                }
+                public void checkServerTrusted(X509Certificate[] certs, String authType) {
+                }
+            }
+        };
+        
+        SSLContext sslContext = SSLContextBuilder.create()
+            .loadTrustMaterial(null, (chain, authType) -> true) // 모든 인증서 신뢰
+            .build();
+        
+        // TrustManager 설정
+        sslContext.init(null, trustAllCerts, new java.security.SecureRandom());
+        trustAllSslContext = sslContext;
+        return sslContext;
+    }
+    
     /**
      * SSL 인증서 검증을 우회하는 RestTemplate을 생성합니다.
      * 
@@ -37,42 +132,50 @@ public class SslByPassUtil {
      * @return SSL 우회가 설정된 RestTemplate
      */
     public static RestTemplate createRestTemplateWithSslBypass(ObjectMapper objectMapper) {
+        return createRestTemplateWithSslBypass(objectMapper, PortalHttpClientSettings.defaults(), null);
+    }
+    
+    /**
+     * SSL 인증서 검증을 우회하는 RestTemplate을 생성합니다.
+     * 
+     * @param objectMapper UTF-8 인코딩을 위한 ObjectMapper (null이면 기본 생성)
+     * @param settings 연결 풀 / 타임아웃 설정
+     * @param poolMonitor 연결 풀 통계 등록 대상 (null 가능)
+     * @return SSL 우회가 설정된 RestTemplate
+     */
+    public static RestTemplate createRestTemplateWithSslBypass(ObjectMapper objectMapper,
+            PortalHttpClientSettings settings, ConnectionPoolMonitor poolMonitor) {
         try {
-            // 모든 인증서를 신뢰하는 TrustManager 생성
-            TrustManager[] trustAllCerts = new TrustManager[] {
-                new X509TrustManager() {
-                    public X509Certificate[] getAcceptedIssuers() {
-                        return null;
-                    }
-                    public void checkClientTrusted(X509Certificate[] certs, String authType) {
-                    }
-                    public void checkServerTrusted(X509Certificate[] certs, String authType) {
-                    }
-                }
-            };
-            
-            SSLContext sslContext = SSLContextBuilder.create()
-                .loadTrustMaterial(null, (chain, authType) -> true) // 모든 인증서 신뢰
-                .build();
-            
-            // TrustManager 설정
-            sslContext.init(null, trustAllCerts, new java.security.SecureRandom());
+            SSLContext sslContext = createTrustAllSslContext();
             
-            SSLConnectionSocketFactory sslSocketFactory = new SSLConnectionSocketFactory(
+            DefaultClientTlsStrategy tlsStrategy = new DefaultClientTlsStrategy(
                 sslContext,
                 NoopHostnameVerifier.INSTANCE // 모든 호스트명 허용
             );
             
-            CloseableHttpClient httpClient = HttpClients.custom()
-                .setConnectionManager(
-                    PoolingHttpClientConnectionManagerBuilder.create()
-                        .setSSLSocketFactory(sslSocketFactory)
-                        .build()
-                )
-                .evictExpiredConnections()
+            PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setTlsSocketStrategy(tlsStrategy)
+                .setMaxConnTotal(settings.getMaxTotal())
+                .setMaxConnPerRoute(settings.getMaxPerRoute())
+                .setDefaultConnectionConfig(settings.toConnectionConfig())
                 .build();
+            if (poolMonitor != null) {
+                poolMonitor.register("classic", pool);
+            }
+            
+            HttpClientBuilder httpClientBuilder = HttpClients.custom()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(settings.toRequestConfig())
+                .evictExpiredConnections()
+                .evictIdleConnections(settings.getIdleEviction());
+            if (settings.getAcceptEncoding().isEmpty()) {
+                // 압축 응답을 요청하지 않도록 설정한 경우 기본 Accept-Encoding도 보내지 않음
+                httpClientBuilder.disableContentCompression();
+            }
+            CloseableHttpClient httpClient = httpClientBuilder.build();
             
-            HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+            // MCP 요청 취소 시 진행 중인 HTTP 요청을 중단할 수 있도록 RequestCancellation과 연결
+            HttpComponentsClientHttpRequestFactory factory = new CancellableHttpRequestFactory(httpClient);
             RestTemplate restTemplate = new RestTemplate(factory);
             
             // UTF-8 인코딩을 보장하기 위한 MessageConverter 설정
@@ -83,11 +186,20 @@ public class SslByPassUtil {
             
             StringHttpMessageConverter stringConverter = new StringHttpMessageConverter(StandardCharsets.UTF_8);
             
+            // 포털 응답 본문을 바이트 그대로 받기 위한 변환기 (PortalRestClient JSON passthrough)
+            ByteArrayHttpMessageConverter byteArrayConverter = new ByteArrayHttpMessageConverter();
+            
             restTemplate.setMessageConverters(Arrays.asList(
+                byteArrayConverter,
                 stringConverter,
                 jsonConverter
             ));
             
+            // 큰 POST/PUT 본문 gzip 압축 (설정한 경우에만)
+            if (settings.isRequestCompression()) {
+                restTemplate.setInterceptors(Arrays.asList(new GzipRequestInterceptor(settings)));
+            }
+            
             return restTemplate;
         } catch (NoSuchAlgorithmException | KeyManagementException | KeyStoreException e) {
             // SSL 설정 실패 시 기본 RestTemplate 반환